@@ -0,0 +1,90 @@
+package org.youjhin.hw10authservicetesting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.services.AuthServiceImpl;
+import org.youjhin.hw10authservicetesting.services.UserDetailsServiceImpl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бенчмарк горячих путей {@link AuthServiceImpl} и {@link UserDetailsServiceImpl} на встроенной H2.
+ * Режим {@link Mode#SampleTime} даёт перцентили p50/p99/p999, {@link Mode#Throughput} — пропускную способность.
+ * Число потоков задаётся через {@link BenchmarkRunner} (1, N и 2N, где N — число ядер).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    @Param({"4", "10"})
+    public int bcryptStrength;
+
+    @Param({"1000", "100000"})
+    public int userCount;
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private AuthServiceImpl authService;
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("auth.password.bcrypt-strength=" + bcryptStrength);
+        BenchmarkApplication.seedUsers(context, userCount);
+        authService = context.getBean(AuthServiceImpl.class);
+        userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean register() {
+        UserEntity user = new UserEntity();
+        user.setUsername("registered-" + registrations.incrementAndGet());
+        user.setPassword(BenchmarkApplication.PASSWORD);
+        return authService.register(user);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return authService.login(randomUsername(), BenchmarkApplication.PASSWORD);
+    }
+
+    @Benchmark
+    public void logout() {
+        authService.logout(ThreadLocalRandom.current().nextLong(1, userCount + 1));
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername(randomUsername());
+    }
+
+    private String randomUsername() {
+        return BenchmarkApplication.username(ThreadLocalRandom.current().nextInt(userCount));
+    }
+}
@@ -0,0 +1,77 @@
+package org.youjhin.hw10authservicetesting.benchmarks;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.youjhin.hw10authservicetesting.Hw10AuthServiceTestingApplication;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Запуск полного контекста приложения на встроенной H2 для бенчмарков.
+ * Каждый запуск получает собственную in-memory базу, чтобы параметры разных прогонов не влияли друг на друга.
+ */
+public final class BenchmarkApplication {
+
+    /** Пароль, с которым создаются все предзаполненные пользователи. */
+    public static final String PASSWORD = "benchmark-password";
+
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Поднимает контекст приложения на случайном порту с отдельной базой H2 (общей для JDBC и R2DBC).
+     * @param properties Дополнительные свойства в формате {@code key=value}.
+     * @return запущенный контекст.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        String database = "bench-" + UUID.randomUUID();
+        List<String> all = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        all.addAll(List.of(properties));
+        return new SpringApplicationBuilder(Hw10AuthServiceTestingApplication.class)
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Заполняет таблицу пользователей пакетными вставками.
+     * Хэш пароля вычисляется один раз: стоимость BCrypt при проверке от этого не меняется,
+     * а подготовка больших таблиц не занимает часы.
+     * @param context Запущенный контекст.
+     * @param userCount Количество пользователей с именами {@code user-0 .. user-(N-1)}.
+     */
+    public static void seedUsers(ConfigurableApplicationContext context, int userCount) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < userCount; i++) {
+            batch.add(new Object[]{username(i), hash});
+            if (batch.size() == SEED_BATCH_SIZE || i == userCount - 1) {
+                jdbcTemplate.batchUpdate("insert into user_entity (username, password) values (?, ?)", batch);
+                batch.clear();
+            }
+        }
+        // Пользователи добавлены в обход приложения, поэтому фильтр имён перестраивается
+        context.getBean(UsernameFilter.class).rebuild();
+    }
+
+    /**
+     * Имя предзаполненного пользователя с заданным номером.
+     * @param index Номер пользователя.
+     * @return имя пользователя.
+     */
+    public static String username(int index) {
+        return "user-" + index;
+    }
+}
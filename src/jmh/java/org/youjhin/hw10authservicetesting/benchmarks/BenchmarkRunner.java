@@ -0,0 +1,41 @@
+package org.youjhin.hw10authservicetesting.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Запускает выбранные бенчмарки на 1, N и 2N потоках (N — число доступных ядер)
+ * и сохраняет результаты каждого прогона в JSON в каталоге {@code target/jmh}
+ * для сравнения между релизами.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * @param args Регулярное выражение для выбора бенчмарков (по умолчанию {@code AuthServiceBenchmark}).
+     * @throws RunnerException если JMH не смог выполнить прогон.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : AuthServiceBenchmark.class.getSimpleName();
+        int cores = Runtime.getRuntime().availableProcessors();
+        File resultDir = new File("target/jmh");
+        resultDir.mkdirs();
+
+        for (int threads : new int[]{1, cores, 2 * cores}) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDir, include.replaceAll("\\W", "_") + "-threads-" + threads + ".json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
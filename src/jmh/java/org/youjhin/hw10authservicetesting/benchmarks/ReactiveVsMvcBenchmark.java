@@ -0,0 +1,125 @@
+package org.youjhin.hw10authservicetesting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.youjhin.hw10authservicetesting.config.ReactiveAuthServer;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Сравнение входа через MVC-контроллер ({@code POST /login} на Tomcat) и реактивный API
+ * ({@code POST /api/auth/login} на Reactor Netty) по HTTP.
+ * Одна операция — волна из {@code concurrency} одновременных запросов, поэтому время операции показывает,
+ * как каждый стек переносит большое число параллельных соединений. Оба стека работают в режиме токенов
+ * и используют одну базу H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ReactiveVsMvcBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    @Param({"4", "10"})
+    public int bcryptStrength;
+
+    @Param({"64", "1024"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI mvcLogin;
+    private URI reactiveLogin;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String signingKey = Base64.getEncoder().encodeToString("benchmark-signing-key-benchmark-key".getBytes(StandardCharsets.UTF_8));
+        context = BenchmarkApplication.start(
+                "auth.password.bcrypt-strength=" + bcryptStrength,
+                "auth.token.enabled=true",
+                "auth.token.active-key-id=bench",
+                "auth.token.keys.bench=" + signingKey,
+                "auth.throttle.enabled=false",
+                "auth.reactive.enabled=true",
+                "auth.reactive.port=0",
+                "auth.reactive.hashing-queue-capacity=" + Math.max(256, concurrency));
+        BenchmarkApplication.seedUsers(context, USER_COUNT);
+        int mvcPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+        int reactivePort = context.getBean(ReactiveAuthServer.class).getPort();
+        mvcLogin = URI.create("http://localhost:" + mvcPort + "/login");
+        reactiveLogin = URI.create("http://localhost:" + reactivePort + "/api/auth/login");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int mvcLogin() {
+        return wave(i -> HttpRequest.newBuilder(mvcLogin)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + URLEncoder.encode(randomUsername(), StandardCharsets.UTF_8)
+                        + "&password=" + URLEncoder.encode(BenchmarkApplication.PASSWORD, StandardCharsets.UTF_8)))
+                .build());
+    }
+
+    @Benchmark
+    public int reactiveLogin() {
+        return wave(i -> HttpRequest.newBuilder(reactiveLogin)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + randomUsername()
+                        + "\",\"password\":\"" + BenchmarkApplication.PASSWORD + "\"}"))
+                .build());
+    }
+
+    /**
+     * Отправляет {@code concurrency} запросов одновременно и ждёт все ответы.
+     * @return число успешных ответов (2xx).
+     */
+    private int wave(IntFunction<HttpRequest> requests) {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = httpClient.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        int ok = 0;
+        for (CompletableFuture<?> response : responses) {
+            if (((HttpResponse<?>) response.join()).statusCode() / 100 == 2) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    private static String randomUsername() {
+        return BenchmarkApplication.username(ThreadLocalRandom.current().nextInt(USER_COUNT));
+    }
+}
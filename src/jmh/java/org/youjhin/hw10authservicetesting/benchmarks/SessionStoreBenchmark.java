@@ -0,0 +1,69 @@
+package org.youjhin.hw10authservicetesting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.services.sessions.InMemorySessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionIdGenerator;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк проверки сессии в {@link InMemorySessionStore}.
+ * Запуск через {@link BenchmarkRunner} с аргументом {@code SessionStoreBenchmark} показывает,
+ * как пропускная способность поиска растёт с числом потоков (1, N и 2N).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SessionStoreBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int sessionCount;
+
+    private InMemorySessionStore sessionStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionStore = new InMemorySessionStore(null, new SessionIdGenerator(0), Duration.ofHours(1), Duration.ofSeconds(1),
+                Duration.ofSeconds(10), Clock.systemDefaultZone());
+        sessionStore.afterPropertiesSet();
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 0; id < sessionCount; id++) {
+            SessionEntity session = new SessionEntity();
+            session.setId(id);
+            session.setUserId(id % (sessionCount / 4 + 1));
+            session.setCreatedAt(now);
+            sessionStore.save(session);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionStore.destroy();
+    }
+
+    @Benchmark
+    public Optional<SessionEntity> findById() {
+        return sessionStore.findById(ThreadLocalRandom.current().nextLong(sessionCount));
+    }
+}
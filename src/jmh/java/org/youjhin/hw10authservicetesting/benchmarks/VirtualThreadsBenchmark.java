@@ -0,0 +1,130 @@
+package org.youjhin.hw10authservicetesting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Сравнение обработки запросов Tomcat на пуле платформенных потоков и на виртуальных потоках
+ * ({@code spring.threads.virtual.enabled}) при большом числе одновременных соединений.
+ * Одна операция — волна из {@code concurrency} одновременных запросов:
+ * {@code login} — вход (проверка пароля в пуле хэширования, поток запроса ждёт), {@code home} — страница
+ * для вошедшего пользователя (проверка сессии запросом к базе через JPA). В режиме виртуальных потоков
+ * соединения ограничены семафором ({@code auth.connection-limit}).
+ * Закрепление виртуальных потоков за носителями можно увидеть, добавив {@code -Djdk.tracePinnedThreads=short}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+    private static final int SESSION_COUNT = 256;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"256", "2048"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI login;
+    private URI home;
+    private String[] sessionCookies;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        boolean virtual = "virtual".equals(threads);
+        context = BenchmarkApplication.start(
+                "auth.password.bcrypt-strength=4",
+                "auth.throttle.enabled=false",
+                "auth.hashing.queue-capacity=" + Math.max(64, concurrency),
+                "spring.threads.virtual.enabled=" + virtual,
+                "auth.connection-limit.enabled=" + virtual,
+                "server.tomcat.max-connections=" + Math.max(8192, concurrency),
+                "server.tomcat.accept-count=" + concurrency);
+        BenchmarkApplication.seedUsers(context, USER_COUNT);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        login = URI.create("http://localhost:" + port + "/login");
+        home = URI.create("http://localhost:" + port + "/home");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        sessionCookies = new String[SESSION_COUNT];
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            HttpResponse<Void> response = httpClient.send(loginRequest(BenchmarkApplication.username(i)),
+                    HttpResponse.BodyHandlers.discarding());
+            sessionCookies[i] = response.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int login() {
+        return wave(i -> loginRequest(BenchmarkApplication.username(ThreadLocalRandom.current().nextInt(USER_COUNT))));
+    }
+
+    @Benchmark
+    public int home() {
+        return wave(i -> HttpRequest.newBuilder(home)
+                .header("Cookie", sessionCookies[ThreadLocalRandom.current().nextInt(SESSION_COUNT)])
+                .build());
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return HttpRequest.newBuilder(login)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                        + "&password=" + URLEncoder.encode(BenchmarkApplication.PASSWORD, StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    /**
+     * Отправляет {@code concurrency} запросов одновременно и ждёт все ответы.
+     * @return число успешных ответов (2xx).
+     */
+    private int wave(IntFunction<HttpRequest> requests) {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = httpClient.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        int ok = 0;
+        for (CompletableFuture<?> response : responses) {
+            if (((HttpResponse<?>) response.join()).statusCode() / 100 == 2) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+}
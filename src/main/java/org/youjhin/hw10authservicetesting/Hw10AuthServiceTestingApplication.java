@@ -2,8 +2,17 @@ package org.youjhin.hw10authservicetesting;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// транзакции только JPA; R2DBC настраивается в ReactiveAuthConfig только для реактивного API
+@SpringBootApplication(exclude = {R2dbcTransactionManagerAutoConfiguration.class,
+        R2dbcAutoConfiguration.class, R2dbcDataAutoConfiguration.class})
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class Hw10AuthServiceTestingApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,61 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация кэшей приложения.
+ * Кэш {@link #USERS_BY_USERNAME} стоит перед {@code UserRepository.findByUsername}: он ограничен по размеру,
+ * хранит найденных пользователей и отрицательные ответы (с более коротким временем жизни)
+ * и собирает статистику попаданий, промахов и вытеснений.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Кэш «имя пользователя → запись пользователя». */
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+
+    /**
+     * Создаёт менеджер кэшей на основе Caffeine.
+     * @param properties настройки кэша пользователей.
+     * @return менеджер кэшей.
+     */
+    @Bean
+    public CacheManager cacheManager(UserCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS_BY_USERNAME, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new PositiveNegativeExpiry(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    /**
+     * Политика истечения: отрицательные записи ({@link NullValue}) живут меньше, чем найденные пользователи.
+     */
+    private record PositiveNegativeExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return value instanceof NullValue ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничения одновременно выданных JDBC-соединений ({@code auth.connection-limit.*}).
+ * Нужны в режиме виртуальных потоков ({@code spring.threads.virtual.enabled=true}), где число потоков
+ * запросов не ограничено пулом Tomcat.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.connection-limit")
+public class ConnectionLimitProperties {
+
+    /** Ограничивать ли число одновременно выданных соединений. */
+    private boolean enabled = false;
+
+    /** Число разрешений; 0 — по размеру пула соединений основного узла. */
+    private int permits = 0;
+
+    /** Максимальное время ожидания разрешения. */
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,146 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Конфигурация JDBC-источника данных для JPA.
+ * Источник объявлен явно, потому что при наличии R2DBC-фабрики соединений (реактивный API)
+ * автоконфигурация Spring Boot не создаёт JDBC {@code DataSource}.
+ * При {@code auth.replicas.enabled=true} транзакции только для чтения обслуживаются репликами.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Создаёт пул соединений HikariCP по настройкам {@code spring.datasource.*}.
+     * Если включено {@code auth.connection-limit}, пул оборачивается в {@link ConnectionLimitingDataSource}.
+     * @param properties настройки источника данных.
+     * @param connectionLimit настройки ограничения числа соединений.
+     * @param environment окружение с настройками {@code spring.datasource.hikari.*}.
+     * @return источник данных.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "auth.replicas", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(DataSourceProperties properties, ConnectionLimitProperties connectionLimit,
+                                 Environment environment) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return limitConnections(pool, connectionLimit);
+    }
+
+    /**
+     * Ставит перед пулом семафор, если ограничение числа соединений включено.
+     */
+    static DataSource limitConnections(HikariDataSource pool, ConnectionLimitProperties connectionLimit) {
+        if (!connectionLimit.isEnabled()) {
+            return pool;
+        }
+        int permits = connectionLimit.getPermits() > 0 ? connectionLimit.getPermits() : poolSize(pool);
+        return new ConnectionLimitingDataSource(pool, permits, connectionLimit.getAcquireTimeout());
+    }
+
+    /**
+     * Размер пула до его запуска: HikariCP подставляет значение по умолчанию ({@value #DEFAULT_POOL_SIZE})
+     * только при создании пула, а до этого возвращает {@code -1}.
+     */
+    private static int poolSize(HikariDataSource pool) {
+        return pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * Создаёт пул соединений реплики.
+     * Тайм-аут получения соединения короткий: запрос к недоступной реплике не должен ждать 30 секунд
+     * по умолчанию HikariCP, прежде чем уйти на следующую реплику или основной узел, а проверка
+     * {@link ReplicaRoutingDataSource#checkHealth()} не должна надолго занимать общий поток планировщика.
+     * @param node параметры подключения к реплике.
+     * @param connectionTimeout тайм-аут получения соединения из пула.
+     * @return пул соединений реплики.
+     */
+    static HikariDataSource replicaPool(ReplicaProperties.Node node, Duration connectionTimeout) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(node.getUrl());
+        replica.setUsername(node.getUsername());
+        replica.setPassword(node.getPassword());
+        replica.setMaximumPoolSize(node.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        replica.setConnectionTimeout(connectionTimeout.toMillis());
+        replica.setValidationTimeout(connectionTimeout.toMillis());
+        // Недоступная при запуске реплика не должна мешать старту приложения
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    /**
+     * Источники данных с чтением на репликах.
+     * Основной узел и реплики — отдельные пулы; JPA и {@code JdbcTemplate} получают {@link LazyConnectionDataSourceProxy},
+     * который берёт физическое соединение только при первом запросе, когда признак {@code readOnly} транзакции
+     * уже известен, и для читающих транзакций обращается к {@link ReplicaRoutingDataSource}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "auth.replicas", name = "enabled", havingValue = "true")
+    static class ReplicaRoutingConfig {
+
+        /**
+         * Пул соединений основного узла по настройкам {@code spring.datasource.*}.
+         * @param properties настройки источника данных.
+         * @return источник данных основного узла.
+         */
+        @Bean
+        @ConfigurationProperties(prefix = "spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        /**
+         * Источник соединений для чтения, распределяющий их между репликами.
+         * @param primaryDataSource основной узел.
+         * @param properties настройки реплик.
+         * @return источник соединений для чтения.
+         */
+        @Bean
+        public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties) {
+            List<HikariDataSource> replicas = properties.getNodes().stream()
+                    .map(node -> replicaPool(node, properties.getConnectionTimeout()))
+                    .toList();
+            return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getEjectionTime(),
+                    properties.getHealthCheckTimeout(), Clock.systemUTC());
+        }
+
+        /**
+         * Источник данных для JPA и {@code JdbcTemplate}: запись — на основной узел, чтение — на реплики.
+         * @param primaryDataSource основной узел.
+         * @param replicaDataSource источник соединений для чтения.
+         * @param connectionLimit настройки ограничения числа соединений основного узла.
+         * @return источник данных.
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource,
+                                     ConnectionLimitProperties connectionLimit) {
+            LazyConnectionDataSourceProxy dataSource =
+                    new LazyConnectionDataSourceProxy(limitConnections(primaryDataSource, connectionLimit));
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+            return dataSource;
+        }
+    }
+}
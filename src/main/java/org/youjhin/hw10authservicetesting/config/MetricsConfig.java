@@ -0,0 +1,244 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.youjhin.hw10authservicetesting.controllers.PageCacheFilter;
+import org.youjhin.hw10authservicetesting.security.AdaptiveConcurrencyLimiter;
+import org.youjhin.hw10authservicetesting.security.ConcurrencyLimitingFilter;
+import org.youjhin.hw10authservicetesting.security.LoginThrottle;
+import org.youjhin.hw10authservicetesting.security.PasswordHashingExecutor;
+import org.youjhin.hw10authservicetesting.security.VerifiedCredentialCache;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLog;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.InMemorySessionStore;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики компонентов аутентификации для Micrometer.
+ * Время запросов к репозиториям ({@code spring.data.repository.invocations}), контроллеров
+ * ({@code http.server.requests}), пула соединений ({@code hikaricp.*}) и кэшей ({@code cache.*}) собирает Spring Boot;
+ * здесь регистрируются метрики собственных компонентов.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Метрики пула хэширования паролей: очередь, размер пула, отказы, тайм-ауты и время ожидания в очереди.
+     * @param executor пул хэширования паролей.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingExecutor executor) {
+        return registry -> {
+            Gauge.builder("auth.hashing.queue.depth", executor, PasswordHashingExecutor::getQueueDepth)
+                    .description("Задачи, ожидающие свободный поток хэширования").register(registry);
+            Gauge.builder("auth.hashing.pool.size", executor, PasswordHashingExecutor::getPoolSize).register(registry);
+            FunctionCounter.builder("auth.hashing.rejections", executor, PasswordHashingExecutor::getRejections)
+                    .description("Задачи, отклонённые из-за переполненной очереди").register(registry);
+            FunctionCounter.builder("auth.hashing.timeouts", executor, PasswordHashingExecutor::getTimeouts).register(registry);
+            FunctionTimer.builder("auth.hashing.queue.wait", executor,
+                            PasswordHashingExecutor::getCompleted, PasswordHashingExecutor::getTotalWaitNanos, TimeUnit.NANOSECONDS)
+                    .description("Время ожидания задач в очереди пула хэширования").register(registry);
+        };
+    }
+
+    /**
+     * Метрики ограничителя частоты попыток входа.
+     * @param loginThrottle ограничитель частоты попыток входа.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder loginThrottleMetrics(LoginThrottle loginThrottle) {
+        return registry -> {
+            FunctionCounter.builder("auth.throttle.requests", loginThrottle, LoginThrottle::getAllowed)
+                    .tag("result", "allowed").register(registry);
+            FunctionCounter.builder("auth.throttle.requests", loginThrottle, LoginThrottle::getRejectedByUsername)
+                    .tag("result", "rejected_username").register(registry);
+            FunctionCounter.builder("auth.throttle.requests", loginThrottle, LoginThrottle::getRejectedByClient)
+                    .tag("result", "rejected_client").register(registry);
+            Gauge.builder("auth.throttle.keys", loginThrottle, LoginThrottle::getTrackedUsernames)
+                    .tag("key", "username").register(registry);
+            Gauge.builder("auth.throttle.keys", loginThrottle, LoginThrottle::getTrackedClients)
+                    .tag("key", "client").register(registry);
+        };
+    }
+
+    /**
+     * Метрики адаптивного ограничения одновременных запросов по каждому пути: текущий лимит, число запросов
+     * в обработке, базовое время ответа, отклонённые (503) и завершившиеся отказом запросы.
+     * @param concurrencyLimitingFilter фильтр ограничения, если оно включено.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(ObjectProvider<ConcurrencyLimitingFilter> concurrencyLimitingFilter) {
+        return registry -> concurrencyLimitingFilter.ifAvailable(filter -> filter.getLimiters().forEach((path, limiter) -> {
+            Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("path", path).register(registry);
+            Gauge.builder("auth.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("path", path).register(registry);
+            Gauge.builder("auth.concurrency.rtt.baseline", limiter, AdaptiveConcurrencyLimiter::getBaselineRttMillis)
+                    .tag("path", path).baseUnit("milliseconds").register(registry);
+            FunctionCounter.builder("auth.concurrency.requests", limiter, AdaptiveConcurrencyLimiter::getAccepted)
+                    .tag("path", path).tag("result", "accepted").register(registry);
+            FunctionCounter.builder("auth.concurrency.requests", limiter, AdaptiveConcurrencyLimiter::getShed)
+                    .tag("path", path).tag("result", "shed").description("Запросы, отклонённые с 503 по лимиту")
+                    .register(registry);
+            FunctionCounter.builder("auth.concurrency.requests", limiter, AdaptiveConcurrencyLimiter::getDropped)
+                    .tag("path", path).tag("result", "dropped").register(registry);
+        }));
+    }
+
+    /**
+     * Метрики кэша проверенных учётных данных: входы без BCrypt, промахи и число пользователей в кэше.
+     * @param credentialCache кэш проверенных учётных данных.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder credentialCacheMetrics(VerifiedCredentialCache credentialCache) {
+        return registry -> {
+            if (!credentialCache.isEnabled()) {
+                return;
+            }
+            FunctionCounter.builder("auth.credential.cache.requests", credentialCache, VerifiedCredentialCache::getHits)
+                    .tag("result", "hit").description("Входы, подтверждённые без BCrypt").register(registry);
+            FunctionCounter.builder("auth.credential.cache.requests", credentialCache, VerifiedCredentialCache::getMisses)
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("auth.credential.cache.size", credentialCache, VerifiedCredentialCache::getSize).register(registry);
+        };
+    }
+
+    /**
+     * Метрики фильтра Блума по именам пользователей: память, заполнение, ожидаемая и наблюдаемая доля
+     * ложноположительных ответов, число проверок, обошедшихся без базы.
+     * @param usernameFilter фильтр по именам пользователей.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder usernameFilterMetrics(UsernameFilter usernameFilter) {
+        return registry -> {
+            Gauge.builder("auth.username.filter.memory", usernameFilter, UsernameFilter::getMemoryBytes)
+                    .baseUnit("bytes").register(registry);
+            Gauge.builder("auth.username.filter.size", usernameFilter, UsernameFilter::getSize).register(registry);
+            Gauge.builder("auth.username.filter.fpp.expected", usernameFilter, UsernameFilter::getExpectedFalsePositiveRate)
+                    .register(registry);
+            Gauge.builder("auth.username.filter.fpp.observed", usernameFilter, UsernameFilter::getObservedFalsePositiveRate)
+                    .register(registry);
+            FunctionCounter.builder("auth.username.filter.checks", usernameFilter, UsernameFilter::getChecks)
+                    .register(registry);
+            FunctionCounter.builder("auth.username.filter.skipped.queries", usernameFilter, UsernameFilter::getDefiniteMisses)
+                    .description("Проверки имени, обошедшиеся без запроса к базе").register(registry);
+            FunctionCounter.builder("auth.username.filter.false.positives", usernameFilter, UsernameFilter::getFalsePositives)
+                    .register(registry);
+            FunctionCounter.builder("auth.username.filter.rebuilds", usernameFilter, UsernameFilter::getRebuilds)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Метрики журнала аудита: записанные, потерянные из-за переполнения буфера и не записанные события,
+     * число событий в буфере.
+     * @param auditLog журнал аудита.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder auditLogMetrics(AuditLog auditLog) {
+        return registry -> {
+            if (!auditLog.isEnabled()) {
+                return;
+            }
+            FunctionCounter.builder("auth.audit.events", auditLog, AuditLog::getWritten)
+                    .tag("result", "written").register(registry);
+            FunctionCounter.builder("auth.audit.events", auditLog, AuditLog::getDropped)
+                    .tag("result", "dropped").register(registry);
+            FunctionCounter.builder("auth.audit.events", auditLog, AuditLog::getFailed)
+                    .tag("result", "failed").register(registry);
+            Gauge.builder("auth.audit.pending", auditLog, AuditLog::getPending).register(registry);
+        };
+    }
+
+    /**
+     * Метрики кэша страниц: ответы из кэша, отрисовки шаблонизатором, ответы 304 и число страниц в кэше.
+     * @param pageCacheFilter фильтр кэша страниц, если кэш включён.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder pageCacheMetrics(ObjectProvider<PageCacheFilter> pageCacheFilter) {
+        return registry -> pageCacheFilter.ifAvailable(filter -> {
+            FunctionCounter.builder("auth.pages.requests", filter, PageCacheFilter::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("auth.pages.requests", filter, PageCacheFilter::getMisses)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("auth.pages.not.modified", filter, PageCacheFilter::getNotModified)
+                    .register(registry);
+            Gauge.builder("auth.pages.cached", filter, PageCacheFilter::getSize).register(registry);
+        });
+    }
+
+    /**
+     * Метрики ограничения числа соединений: свободные разрешения, ожидающие потоки и отказы по тайм-ауту.
+     * @param dataSource источник данных приложения.
+     * @return регистратор метрик.
+     * @throws SQLException если источник данных не удалось развернуть.
+     */
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+            return registry -> { };
+        }
+        ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        return registry -> {
+            Gauge.builder("auth.connections.permits.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("auth.connections.permits.waiting", limiter, ConnectionLimitingDataSource::getWaiting)
+                    .description("Потоки, ожидающие разрешения на соединение").register(registry);
+            FunctionCounter.builder("auth.connections.permits.timeouts", limiter, ConnectionLimitingDataSource::getTimeouts)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Метрики чтения с реплик: доступные реплики, соединения для чтения по узлам и исключения реплик.
+     * @param replicaDataSource источник соединений для чтения, если чтение с реплик включено.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder replicaMetrics(ObjectProvider<ReplicaRoutingDataSource> replicaDataSource) {
+        return registry -> replicaDataSource.ifAvailable(replicas -> {
+            Gauge.builder("auth.replicas.healthy", replicas, ReplicaRoutingDataSource::getHealthyReplicas).register(registry);
+            FunctionCounter.builder("auth.replicas.reads", replicas, ReplicaRoutingDataSource::getReplicaReads)
+                    .tag("node", "replica").register(registry);
+            FunctionCounter.builder("auth.replicas.reads", replicas, ReplicaRoutingDataSource::getPrimaryReads)
+                    .tag("node", "primary").register(registry);
+            FunctionCounter.builder("auth.replicas.ejections", replicas, ReplicaRoutingDataSource::getEjections)
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Метрики сессий и токенов: число сессий в памяти и размер списка отозванных токенов (если эти режимы включены).
+     * @param sessionStore хранилище сессий.
+     * @param accessTokenService сервис токенов доступа, если режим токенов включён.
+     * @return регистратор метрик.
+     */
+    @Bean
+    public MeterBinder sessionMetrics(SessionStore sessionStore, ObjectProvider<AccessTokenService> accessTokenService) {
+        return registry -> {
+            if (sessionStore instanceof InMemorySessionStore inMemoryStore) {
+                Gauge.builder("auth.sessions.active", inMemoryStore, InMemorySessionStore::size)
+                        .description("Сессии в памяти").register(registry);
+            }
+            accessTokenService.ifAvailable(tokenService ->
+                    Gauge.builder("auth.tokens.revoked", tokenService, AccessTokenService::getRevokedCount).register(registry));
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.youjhin.hw10authservicetesting.controllers.PageCacheFilter;
+import org.youjhin.hw10authservicetesting.controllers.PageCacheProperties;
+
+/**
+ * Конфигурация кэша отрисованных страниц.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auth.page-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PageCacheConfig {
+
+    /**
+     * Предоставляет фильтр кэша страниц.
+     * @param properties настройки кэша страниц ({@code auth.page-cache.*}).
+     * @return экземпляр {@link PageCacheFilter}.
+     */
+    @Bean
+    public PageCacheFilter pageCacheFilter(PageCacheProperties properties) {
+        return new PageCacheFilter(properties);
+    }
+
+    /**
+     * Регистрирует фильтр кэша страниц после цепочки фильтров безопасности,
+     * чтобы закрытые страницы отдавались из кэша только аутентифицированным пользователям.
+     * @param pageCacheFilter фильтр кэша страниц.
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<PageCacheFilter> pageCacheFilterRegistration(PageCacheFilter pageCacheFilter) {
+        FilterRegistrationBean<PageCacheFilter> registration = new FilterRegistrationBean<>(pageCacheFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,121 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.youjhin.hw10authservicetesting.controllers.ReactiveAuthHandler;
+import org.youjhin.hw10authservicetesting.security.BoundedPasswordEncoder;
+import org.youjhin.hw10authservicetesting.security.LoginThrottle;
+import org.youjhin.hw10authservicetesting.security.VerifiedCredentialCache;
+import org.youjhin.hw10authservicetesting.security.config.LoginThrottleProperties;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.services.ReactiveAuthServiceImpl;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLog;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionIdGenerator;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Конфигурация неблокирующего API аутентификации ({@code auth.reactive.enabled=true}).
+ * API работает без серверных сессий, поэтому требует включённого режима токенов доступа.
+ * Фабрика соединений R2DBC ({@code spring.r2dbc.*}) и {@link DatabaseClient} создаются только здесь:
+ * при выключенном API приложение не подключается к базе по R2DBC.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auth.reactive", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveAuthConfig {
+
+    /**
+     * Создаёт пул соединений R2DBC по настройкам {@code spring.r2dbc.*}.
+     * Автоконфигурация R2DBC отключена в приложении, чтобы пул существовал только при включённом API.
+     * @param properties настройки R2DBC.
+     * @return пул соединений.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool r2dbcConnectionFactory(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    /**
+     * @param r2dbcConnectionFactory пул соединений R2DBC.
+     * @return реактивный клиент базы данных.
+     */
+    @Bean
+    public DatabaseClient databaseClient(ConnectionPool r2dbcConnectionFactory) {
+        return DatabaseClient.create(r2dbcConnectionFactory);
+    }
+
+    /**
+     * Предоставляет ограниченный планировщик для хэширования и проверки паролей.
+     * @param properties настройки реактивного API.
+     * @return планировщик.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactivePasswordHashingScheduler(ReactiveAuthProperties properties) {
+        return Schedulers.newBoundedElastic(properties.getHashingThreads(), properties.getHashingQueueCapacity(),
+                "reactive-password-hashing");
+    }
+
+    /**
+     * Предоставляет реактивный сервис аутентификации.
+     * Сервис получает кодировщик без пула {@link BoundedPasswordEncoder}: операции с паролями и так
+     * выполняются на ограниченном планировщике {@code reactivePasswordHashingScheduler}.
+     * @return экземпляр {@link ReactiveAuthServiceImpl}.
+     */
+    @Bean
+    public ReactiveAuthServiceImpl reactiveAuthService(DatabaseClient databaseClient, PasswordEncoder passwordEncoder,
+                                                       Scheduler reactivePasswordHashingScheduler,
+                                                       SessionIdGenerator sessionIdGenerator,
+                                                       ObjectProvider<AccessTokenService> accessTokenService,
+                                                       CacheManager cacheManager, UsernameFilter usernameFilter,
+                                                       AuditLog auditLog, VerifiedCredentialCache credentialCache) {
+        PasswordEncoder encoder = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.getDelegate() : passwordEncoder;
+        return new ReactiveAuthServiceImpl(databaseClient, encoder, reactivePasswordHashingScheduler,
+                sessionIdGenerator, requireTokens(accessTokenService), cacheManager.getCache(CacheConfig.USERS_BY_USERNAME),
+                usernameFilter, auditLog, credentialCache);
+    }
+
+    /**
+     * Предоставляет сервер Reactor Netty с маршрутами реактивного API.
+     * Вход ограничивается тем же {@link LoginThrottle}, что и {@code POST /login}, если ограничение включено.
+     * @return экземпляр {@link ReactiveAuthServer}.
+     */
+    @Bean
+    public ReactiveAuthServer reactiveAuthServer(ReactiveAuthServiceImpl reactiveAuthService,
+                                                 ObjectProvider<AccessTokenService> accessTokenService,
+                                                 ReactiveAuthProperties properties, LoginThrottle loginThrottle,
+                                                 LoginThrottleProperties throttleProperties) {
+        ReactiveAuthHandler handler = new ReactiveAuthHandler(reactiveAuthService, requireTokens(accessTokenService),
+                throttleProperties.isEnabled() ? loginThrottle : null);
+        return new ReactiveAuthServer(handler.routes(), properties.getPort());
+    }
+
+    private static AccessTokenService requireTokens(ObjectProvider<AccessTokenService> accessTokenService) {
+        AccessTokenService tokenService = accessTokenService.getIfAvailable();
+        if (tokenService == null) {
+            throw new IllegalStateException("auth.reactive.enabled requires auth.token.enabled=true");
+        }
+        return tokenService;
+    }
+}
@@ -0,0 +1,26 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки неблокирующего API аутентификации ({@code auth.reactive.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.reactive")
+public class ReactiveAuthProperties {
+
+    /** Запускать ли реактивный API на отдельном сервере Reactor Netty. Требует {@code auth.token.enabled=true}. */
+    private boolean enabled = false;
+
+    /** Порт сервера реактивного API; 0 — случайный свободный порт. */
+    private int port = 8081;
+
+    /** Число потоков планировщика для операций с паролями. */
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+
+    /** Максимальное число операций с паролями, ожидающих в очереди планировщика. */
+    private int hashingQueueCapacity = 256;
+}
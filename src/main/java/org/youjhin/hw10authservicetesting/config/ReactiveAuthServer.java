@@ -0,0 +1,53 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Отдельный сервер Reactor Netty для неблокирующего API аутентификации.
+ * Запросы обрабатываются небольшим пулом потоков цикла событий, независимо от пула потоков Tomcat.
+ */
+public class ReactiveAuthServer implements SmartLifecycle {
+
+    private final RouterFunction<ServerResponse> routes;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveAuthServer(RouterFunction<ServerResponse> routes, int port) {
+        this.routes = routes;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes);
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /** @return фактический порт сервера. */
+    public int getPort() {
+        return server.port();
+    }
+}
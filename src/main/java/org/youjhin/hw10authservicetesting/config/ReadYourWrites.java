@@ -0,0 +1,54 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Чтение своих записей при работе с репликами.
+ * Ключи данных, записанных этим узлом за последние {@code auth.replicas.read-your-writes-window}, запоминаются,
+ * и чтение по таким ключам выполняется на основном узле (например, вход сразу после регистрации).
+ * Записи других узлов не отслеживаются. Если чтение с реплик выключено, запросы выполняются как есть.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    /**
+     * @param properties настройки чтения с реплик.
+     */
+    public ReadYourWrites(ReplicaProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Запоминает, что данные с этим ключом только что записаны.
+     * @param key ключ данных, например имя пользователя.
+     */
+    public void recordWrite(String key) {
+        if (enabled) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Выполняет запрос на основном узле, если данные с этим ключом недавно записаны, иначе — как обычно.
+     * @param key ключ данных.
+     * @param query запрос.
+     * @return результат запроса.
+     */
+    public <T> T read(String key, Supplier<T> query) {
+        if (enabled && recentWrites.getIfPresent(key) != null) {
+            return ReplicaRoutingDataSource.usePrimary(query);
+        }
+        return query.get();
+    }
+}
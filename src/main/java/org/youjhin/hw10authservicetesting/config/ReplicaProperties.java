@@ -0,0 +1,65 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки чтения с реплик базы данных ({@code auth.replicas.*}).
+ * Основной узел задаётся в {@code spring.datasource.*}; при {@code enabled=true} читающие транзакции
+ * уходят на реплики из {@link #nodes}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.replicas")
+public class ReplicaProperties {
+
+    /** Направлять ли транзакции только для чтения на реплики. */
+    private boolean enabled = false;
+
+    /** Реплики, между которыми распределяется чтение. */
+    private List<Node> nodes = new ArrayList<>();
+
+    /** Время, на которое недоступная реплика исключается из распределения. */
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    /** Период проверки доступности реплик. */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /** Тайм-аут проверки соединения с репликой. */
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Тайм-аут получения соединения из пула реплики (не меньше 250 мс — минимум HikariCP).
+     * По его истечении чтение уходит на следующую реплику или основной узел.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Окно, в течение которого данные, только что записанные этим узлом, читаются с основного узла.
+     * Должно превышать типичное отставание реплик.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Параметры подключения к одной реплике.
+     */
+    @Getter
+    @Setter
+    public static class Node {
+
+        /** JDBC URL реплики. */
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /** Размер пула соединений реплики. */
+        private int maximumPoolSize = 10;
+    }
+}
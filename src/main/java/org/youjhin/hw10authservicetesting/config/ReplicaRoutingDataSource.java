@@ -0,0 +1,200 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Источник соединений только для чтения, распределяющий их между репликами по кругу.
+ * Используется как {@link LazyConnectionDataSourceProxy#setReadOnlyDataSource(DataSource)}:
+ * прокси берёт соединение отсюда, только если транзакция помечена {@code readOnly}.
+ * <p>
+ * Реплика, не выдавшая соединение, исключается на {@code ejectionTime} и соединение берётся у следующей;
+ * если доступных реплик нет, чтение выполняется на основном узле. Периодическая проверка
+ * {@link #checkHealth()} возвращает восстановившиеся реплики раньше срока.
+ * Код, которому нужны только что записанные данные, выполняется через {@link #usePrimary(Supplier)}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Replica[] replicas;
+    private final long ejectionMillis;
+    private final int healthCheckTimeoutSeconds;
+    private final Clock clock;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder ejections = new LongAdder();
+
+    /**
+     * @param primary Основной узел, на который чтение уходит без доступных реплик.
+     * @param replicas Источники соединений реплик.
+     * @param ejectionTime Время исключения недоступной реплики.
+     * @param healthCheckTimeout Тайм-аут проверки соединения.
+     * @param clock Часы для отсчёта времени исключения.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                    Duration ejectionTime, Duration healthCheckTimeout, Clock clock) {
+        this.primary = primary;
+        this.replicas = new Replica[replicas.size()];
+        for (int i = 0; i < this.replicas.length; i++) {
+            this.replicas[i] = new Replica(replicas.get(i));
+        }
+        this.ejectionMillis = ejectionTime.toMillis();
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        this.clock = clock;
+    }
+
+    /**
+     * Выполняет действие так, чтобы все соединения для чтения брались у основного узла.
+     * Нужен там, где читаются данные, записанные только что: реплика может ещё не получить их.
+     * @param action действие.
+     * @return результат действия.
+     */
+    public static <T> T usePrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionFactory factory) throws SQLException {
+        if (PRIMARY_ONLY.get() == null && replicas.length > 0) {
+            long now = clock.millis();
+            int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+            for (int i = 0; i < replicas.length; i++) {
+                Replica replica = replicas[(start + i) % replicas.length];
+                if (replica.ejectedUntil > now) {
+                    continue;
+                }
+                try {
+                    Connection connection = factory.connect(replica.dataSource);
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    logger.warn("Replica is unavailable, ejecting it for " + ejectionMillis + " ms", e);
+                    eject(replica, now);
+                }
+            }
+        }
+        primaryReads.increment();
+        return factory.connect(primary);
+    }
+
+    private void eject(Replica replica, long now) {
+        replica.ejectedUntil = now + ejectionMillis;
+        ejections.increment();
+    }
+
+    /**
+     * Проверяет соединение с каждой репликой: доступные возвращаются в распределение, недоступные исключаются.
+     * Выполняется с периодом {@code auth.replicas.health-check-interval}.
+     */
+    @Scheduled(fixedDelayString = "${auth.replicas.health-check-interval:PT5S}")
+    public void checkHealth() {
+        long now = clock.millis();
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                replica.ejectedUntil = 0;
+            } else if (replica.ejectedUntil <= now) {
+                eject(replica, now);
+            }
+        }
+    }
+
+    /**
+     * Закрывает пулы соединений реплик; основной узел закрывает его владелец.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * @return число реплик, участвующих в распределении сейчас.
+     */
+    public int getHealthyReplicas() {
+        long now = clock.millis();
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.ejectedUntil <= now) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * @return число соединений для чтения, выданных репликами.
+     */
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * @return число соединений для чтения, выданных основным узлом (чтение своих записей или нет доступных реплик).
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * @return число исключений реплик из распределения.
+     */
+    public long getEjections() {
+        return ejections.sum();
+    }
+
+    private static final class Replica {
+
+        final DataSource dataSource;
+        volatile long ejectedUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,66 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.InMemorySessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.RepositorySessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionIdGenerator;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionPersistenceProperties;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionStoreProperties;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionWriter;
+
+import java.time.Clock;
+
+/**
+ * Конфигурация хранения сессий пользователей.
+ */
+@Configuration
+public class SessionConfig {
+
+    /**
+     * Предоставляет генератор идентификаторов сессий для текущего узла.
+     * @param properties настройки сохранения сессий.
+     * @return экземпляр {@link SessionIdGenerator}.
+     */
+    @Bean
+    public SessionIdGenerator sessionIdGenerator(SessionPersistenceProperties properties) {
+        return new SessionIdGenerator(properties.getNodeId());
+    }
+
+    /**
+     * Предоставляет компонент записи сессий в выбранном режиме (синхронно или пакетами в фоне).
+     * @param sessionRepository репозиторий сессий.
+     * @param sessionIdGenerator генератор идентификаторов сессий.
+     * @param properties настройки сохранения сессий.
+     * @return экземпляр {@link SessionWriter}.
+     */
+    @Bean
+    public SessionWriter sessionWriter(SessionRepository sessionRepository, SessionIdGenerator sessionIdGenerator,
+                                       SessionPersistenceProperties properties) {
+        return new SessionWriter(sessionRepository, sessionIdGenerator, properties);
+    }
+
+    /**
+     * Предоставляет хранилище сессий выбранного типа.
+     * В режиме {@code memory} сессии проверяются без обращения к базе, а {@link SessionRepository}
+     * остаётся надёжным уровнем, если {@code auth.sessions.durable=true}.
+     * @param sessionRepository репозиторий сессий.
+     * @param sessionWriter компонент записи новых сессий.
+     * @param sessionIdGenerator генератор идентификаторов сессий.
+     * @param properties настройки хранилища сессий.
+     * @return экземпляр {@link SessionStore}.
+     */
+    @Bean
+    public SessionStore sessionStore(SessionRepository sessionRepository, SessionWriter sessionWriter,
+                                     SessionIdGenerator sessionIdGenerator, SessionStoreProperties properties) {
+        Clock clock = Clock.systemDefaultZone();
+        RepositorySessionStore repositoryStore = new RepositorySessionStore(sessionRepository, sessionWriter, properties.getTtl(), clock);
+        if (properties.getStore() == SessionStoreProperties.Type.MEMORY) {
+            return new InMemorySessionStore(properties.isDurable() ? repositoryStore : null, sessionIdGenerator,
+                    properties.getTtl(), properties.getExpiryTick(), properties.getNegativeTtl(), clock);
+        }
+        return repositoryStore;
+    }
+}
@@ -0,0 +1,25 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша поиска пользователей по имени ({@code auth.user-cache.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.user-cache")
+public class UserCacheProperties {
+
+    /** Максимальное число записей в кэше. */
+    private long maximumSize = 10_000;
+
+    /** Время жизни записи о найденном пользователе. */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** Время жизни отрицательной записи (пользователь не найден). */
+    private Duration negativeTtl = Duration.ofSeconds(10);
+}
@@ -0,0 +1,120 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.youjhin.hw10authservicetesting.services.admin.AdminListingService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * Контроллер административных списков пользователей и действующих сессий.
+ * Списки отдаются страницами с курсором следующей страницы ({@code next}), который передаётся
+ * в параметре {@code cursor}; выгрузка ({@code /export}) отдаёт весь список в NDJSON по мере чтения из базы.
+ * Выгрузка пишет прямо в поток ответа: если клиент отключился, ошибка записи прерывает чтение таблицы.
+ * Доступ к {@code /admin/**} есть только у администраторов (см. {@code WebSecurityConfig}).
+ */
+@RestController
+public class AdminListingController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AdminListingService adminListingService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+
+    public AdminListingController(AdminListingService adminListingService, ObjectMapper objectMapper) {
+        this.adminListingService = adminListingService;
+        this.objectMapper = objectMapper;
+        // Поток ответа сбрасывается по заполнении буфера, а не после каждой строки
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Возвращает страницу пользователей в порядке идентификаторов.
+     * @param cursor Курсор следующей страницы из предыдущего ответа.
+     * @param size Размер страницы.
+     * @return страница пользователей или 400, если курсор некорректен.
+     */
+    @GetMapping("/admin/users")
+    public ResponseEntity<?> users(@RequestParam(required = false) String cursor,
+                                   @RequestParam(required = false) Integer size) {
+        return page(() -> adminListingService.users(cursor, size));
+    }
+
+    /**
+     * Возвращает страницу действующих сессий в порядке создания.
+     * @param userId Идентификатор пользователя; если не задан — сессии всех пользователей.
+     * @param cursor Курсор следующей страницы из предыдущего ответа.
+     * @param size Размер страницы.
+     * @return страница сессий или 400, если курсор некорректен.
+     */
+    @GetMapping("/admin/sessions")
+    public ResponseEntity<?> sessions(@RequestParam(required = false) Long userId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer size) {
+        return page(() -> adminListingService.sessions(userId, cursor, size));
+    }
+
+    /**
+     * Выгружает всех пользователей в NDJSON.
+     * @param response Ответ, в который пишутся пользователи.
+     * @throws IOException если не удалось записать ответ.
+     */
+    @GetMapping("/admin/users/export")
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        try (JsonGenerator generator = ndjson(response)) {
+            adminListingService.exportUsers(user -> writeLine(generator, user));
+        }
+    }
+
+    /**
+     * Выгружает действующие сессии в NDJSON.
+     * @param userId Идентификатор пользователя; если не задан — сессии всех пользователей.
+     * @param response Ответ, в который пишутся сессии.
+     * @throws IOException если не удалось записать ответ.
+     */
+    @GetMapping("/admin/sessions/export")
+    public void exportSessions(@RequestParam(required = false) Long userId, HttpServletResponse response) throws IOException {
+        try (JsonGenerator generator = ndjson(response)) {
+            adminListingService.exportSessions(userId, session -> writeLine(generator, session));
+        }
+    }
+
+    private static ResponseEntity<?> page(Supplier<?> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private JsonGenerator ndjson(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream());
+        // Записи разделяются переводом строки, который пишется после каждой из них
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    /**
+     * Пишет запись и перевод строки. Ошибка записи (клиент отключился) пробрасывается
+     * как {@link UncheckedIOException} и прерывает чтение таблицы.
+     */
+    private void writeLine(JsonGenerator generator, Object value) {
+        try {
+            lineWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
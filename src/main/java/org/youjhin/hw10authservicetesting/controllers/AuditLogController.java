@@ -0,0 +1,70 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLog;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Контроллер поиска в журнале аудита.
+ * События отдаются в NDJSON по мере чтения журнала, без накопления в памяти.
+ */
+@RestController
+public class AuditLogController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AuditLog auditLog;
+    private final ObjectMapper objectMapper;
+
+    public AuditLogController(AuditLog auditLog, ObjectMapper objectMapper) {
+        this.auditLog = auditLog;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Возвращает события журнала аудита, подходящие под условия, в порядке записи.
+     * @param username Имя пользователя; если не задано — события всех пользователей.
+     * @param from Начало интервала включительно (ISO-8601).
+     * @param to Конец интервала не включительно (ISO-8601).
+     * @param limit Максимальное число событий.
+     * @param response Ответ, в который пишутся события.
+     * @throws IOException если журнал не удалось прочитать.
+     */
+    @GetMapping("/admin/audit")
+    public void query(@RequestParam(required = false) String username,
+                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                      @RequestParam(defaultValue = "1000") int limit,
+                      HttpServletResponse response) throws IOException {
+        if (!auditLog.isEnabled()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Audit log is disabled");
+            return;
+        }
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter writer = response.getWriter();
+        int[] remaining = {limit};
+        auditLog.scanner().scan(username, from, to, event -> {
+            if (remaining[0] <= 0) {
+                return false;
+            }
+            try {
+                writer.println(objectMapper.writeValueAsString(event));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return --remaining[0] > 0;
+        });
+        writer.flush();
+    }
+}
@@ -0,0 +1,29 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.youjhin.hw10authservicetesting.security.PasswordHashingBusyException;
+
+/**
+ * Обработчик исключений для контроллеров аутентификации.
+ * Преобразует перегрузку пула хэширования паролей в быстрый ответ 503 с заголовком Retry-After,
+ * не удерживая поток запроса.
+ */
+@ControllerAdvice
+public class AuthExceptionHandler {
+
+    /**
+     * Отвечает клиенту, что сервис временно занят.
+     * @param e Исключение перегрузки пула хэширования.
+     * @return ответ 503 с рекомендацией повторить запрос через секунду.
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handleHashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Сервис перегружен, повторите попытку позже");
+    }
+}
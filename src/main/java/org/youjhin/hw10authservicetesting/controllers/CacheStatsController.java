@@ -0,0 +1,45 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Контроллер, отдающий статистику кэшей приложения (попадания, промахи, вытеснения, размер).
+ */
+@RestController
+public class CacheStatsController {
+
+    private final CacheManager cacheManager;
+
+    public CacheStatsController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Возвращает статистику всех кэшей Caffeine.
+     * @return статистика по имени кэша.
+     */
+    @GetMapping("/admin/caches")
+    public Map<String, Map<String, Object>> cacheStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("size", caffeineCache.getNativeCache().estimatedSize());
+                values.put("hits", stats.hitCount());
+                values.put("misses", stats.missCount());
+                values.put("hitRate", stats.hitRate());
+                values.put("evictions", stats.evictionCount());
+                result.put(name, values);
+            }
+        }
+        return result;
+    }
+}
@@ -1,54 +1,79 @@
 package org.youjhin.hw10authservicetesting.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.youjhin.hw10authservicetesting.models.UserEntity;
-import org.youjhin.hw10authservicetesting.repositorys.UserRepository;
+import org.youjhin.hw10authservicetesting.security.AuthenticatedUser;
+import org.youjhin.hw10authservicetesting.security.token.TokenProperties;
 import org.youjhin.hw10authservicetesting.services.AuthServiceImpl;
+import org.youjhin.hw10authservicetesting.services.LoginResult;
 
-import java.util.Optional;
+import java.time.Duration;
 
 /**
  * Контроллер для обработки запросов на вход и выход пользователей.
  * Этот класс отвечает за обработку запросов на аутентификацию пользователя (вход в систему)
  * и завершение сеанса пользователя (выход из системы). Он делегирует выполнение этих операций
  * сервису аутентификации и возвращает соответствующие представления или перенаправления.
+ * Идентификатор сессии текущего пользователя хранится в его HTTP-сессии (или, в режиме токенов,
+ * внутри токена доступа в cookie), поэтому контроллер не имеет общего изменяемого состояния.
  */
 @Controller
 public class LogInAndOutController {
 
+    /** Атрибут HTTP-сессии с идентификатором сессии аутентификации. */
+    public static final String SESSION_ID_ATTRIBUTE = "AUTH_SESSION_ID";
+
+    /** Атрибут HTTP-сессии с именем вошедшего пользователя (для журнала аудита). */
+    public static final String USERNAME_ATTRIBUTE = "AUTH_USERNAME";
+
     private final AuthServiceImpl authService;
-    private final UserRepository userRepository;
-    private Long userId; // Идентификатор текущего аутентифицированного пользователя
+    private final TokenProperties tokenProperties;
 
     /**
-     * Конструктор для внедрения зависимостей сервиса аутентификации и репозитория пользователей.
+     * Конструктор для внедрения зависимости сервиса аутентификации.
      * @param authService Сервис аутентификации для выполнения входа и выхода.
-     * @param userRepository Репозиторий пользователей для поиска пользователя по имени.
+     * @param tokenProperties Настройки токенов доступа (имя cookie и время жизни).
      */
     @Autowired
-    public LogInAndOutController(AuthServiceImpl authService, UserRepository userRepository) {
+    public LogInAndOutController(AuthServiceImpl authService, TokenProperties tokenProperties) {
         this.authService = authService;
-        this.userRepository = userRepository;
+        this.tokenProperties = tokenProperties;
     }
 
     /**
      * Обрабатывает POST-запрос на вход пользователя в систему.
-     * Проверяет учетные данные пользователя и в случае успешной аутентификации перенаправляет
-     * на главную страницу. В случае неудачи перенаправляет на страницу с ошибкой.
+     * Проверяет учетные данные пользователя и в случае успешной аутентификации сохраняет идентификатор
+     * созданной сессии в HTTP-сессии (в режиме токенов — выдаёт токен доступа в cookie)
+     * и перенаправляет на главную страницу. В случае неудачи перенаправляет на страницу с ошибкой.
      * @param username Имя пользователя.
      * @param password Пароль пользователя.
+     * @param request HTTP-запрос, в сессии которого запоминается вход.
+     * @param response HTTP-ответ, в который записывается cookie с токеном.
      * @return Имя представления или перенаправление.
      */
     @PostMapping("/login")
-    public String login(@RequestParam("username") String username, @RequestParam("password") String password) {
-        Optional<UserEntity> user = userRepository.findByUsername(username);
-        user.ifPresent(userEntity -> userId = userEntity.getId()); // получаем Id текущего пользователя
-        boolean login = authService.login(username, password);
-        if (login) {
+    public String login(@RequestParam("username") String username, @RequestParam("password") String password,
+                        HttpServletRequest request, HttpServletResponse response) {
+        LoginResult result = authService.authenticate(username, password);
+        if (result.isSuccess() && result.accessToken() != null) {
+            response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie(result.accessToken(), tokenProperties.getTtl()).toString());
+            return "home";
+        }
+        if (result.isSuccess()) {
+            HttpSession httpSession = request.getSession();
+            request.changeSessionId(); // защита от фиксации сессии
+            httpSession.setAttribute(SESSION_ID_ATTRIBUTE, result.sessionId());
+            httpSession.setAttribute(USERNAME_ATTRIBUTE, username);
             return "home"; // Перенаправление на главную страницу в случае успешного входа
         }
         return "redirect:/errorpage"; // Перенаправление на страницу ошибки в случае неудачи
@@ -56,14 +81,38 @@ public class LogInAndOutController {
 
     /**
      * Обрабатывает GET-запрос на выход пользователя из системы.
-     * Выполняет выход текущего пользователя, очищая его сессию, и перенаправляет на страницу входа.
+     * Завершает только сессию текущего пользователя, определённую при аутентификации запроса,
+     * и перенаправляет на страницу входа.
+     * @param request HTTP-запрос текущего пользователя.
+     * @param response HTTP-ответ, в котором удаляется cookie с токеном.
      * @return Перенаправление на страницу входа.
      */
     @GetMapping("/exit")
-    public String logout() {
-        authService.logout(userId); // Выполнение выхода для текущего пользователя
+    public String logout(HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        HttpSession httpSession = request.getSession(false);
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                && authentication.getCredentials() instanceof Long sessionId) {
+            authService.logoutSession(sessionId, user.userId(), user.username()); // Выполнение выхода для текущей сессии
+        } else if (httpSession != null && httpSession.getAttribute(SESSION_ID_ATTRIBUTE) instanceof Long sessionId) {
+            Object username = httpSession.getAttribute(USERNAME_ATTRIBUTE);
+            authService.logoutSession(sessionId, null, username instanceof String name ? name : null);
+        }
+        if (httpSession != null) {
+            httpSession.invalidate();
+        }
+        if (tokenProperties.isEnabled()) {
+            response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie("", Duration.ZERO).toString());
+        }
         return "redirect:/login"; // Перенаправление на страницу входа
     }
-}
-
 
+    private ResponseCookie tokenCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(tokenProperties.getCookieName(), value)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+}
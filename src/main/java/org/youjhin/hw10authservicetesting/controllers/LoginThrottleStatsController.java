@@ -0,0 +1,36 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.youjhin.hw10authservicetesting.security.LoginThrottle;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Контроллер, отдающий счётчики ограничителя частоты попыток входа.
+ */
+@RestController
+public class LoginThrottleStatsController {
+
+    private final LoginThrottle loginThrottle;
+
+    public LoginThrottleStatsController(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    /**
+     * Возвращает число разрешённых и отклонённых попыток входа и число отслеживаемых ключей.
+     * @return счётчики ограничителя.
+     */
+    @GetMapping("/admin/login-throttle")
+    public Map<String, Long> throttleStats() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("allowed", loginThrottle.getAllowed());
+        result.put("rejectedByUsername", loginThrottle.getRejectedByUsername());
+        result.put("rejectedByClient", loginThrottle.getRejectedByClient());
+        result.put("trackedUsernames", loginThrottle.getTrackedUsernames());
+        result.put("trackedClients", loginThrottle.getTrackedClients());
+        return result;
+    }
+}
@@ -0,0 +1,235 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Фильтр, отдающий страницы {@link ViewPagesController} из кэша отрисованных страниц.
+ * Страница отрисовывается Thymeleaf один раз и хранится вместе со сжатым gzip вариантом и строгими ETag
+ * для каждого варианта. Повторные GET не доходят до контроллера и шаблонизатора, а запросы с совпадающим
+ * If-None-Match получают 304 без тела. Ключ кэша — путь и параметры запроса: модели этих страниц
+ * от пользователя не зависят.
+ * <p>
+ * Фильтр стоит после цепочки фильтров безопасности, поэтому закрытые страницы по-прежнему
+ * требуют аутентификации. Ответы с ошибкой или с Set-Cookie не кэшируются.
+ */
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private final PageCacheProperties properties;
+    private final Set<String> paths;
+    private final Cache<String, CachedPage> pages;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * @param properties настройки кэша страниц.
+     */
+    public PageCacheFilter(PageCacheProperties properties) {
+        this.properties = properties;
+        this.paths = Set.copyOf(properties.getPaths());
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || !paths.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getQueryString() == null
+                ? request.getServletPath() : request.getServletPath() + '?' + request.getQueryString();
+        CachedPage page = pages.getIfPresent(key);
+        if (page != null) {
+            hits.increment();
+            write(page, request, response);
+            return;
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        misses.increment();
+        ContentCachingResponseWrapper rendered = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, rendered);
+        if (!isCacheable(rendered)) {
+            rendered.copyBodyToResponse();
+            return;
+        }
+        page = CachedPage.of(rendered.getContentAsByteArray(), rendered.getContentType(),
+                rendered.getHeader(HttpHeaders.CONTENT_LANGUAGE), properties.getMinCompressSize());
+        pages.put(key, page);
+        write(page, request, response);
+    }
+
+    private static boolean isCacheable(ContentCachingResponseWrapper rendered) {
+        return rendered.getStatus() == HttpStatus.OK.value()
+                && rendered.getContentType() != null
+                && MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(rendered.getContentType()))
+                && !rendered.containsHeader(HttpHeaders.SET_COOKIE);
+    }
+
+    private void write(CachedPage page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = page.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? page.gzipEtag() : page.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                properties.getPathCacheControl().getOrDefault(request.getServletPath(), properties.getCacheControl()));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        byte[] body = gzip ? page.gzip() : page.body();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(page.contentType());
+        if (page.contentLanguage() != null) {
+            response.setHeader(HttpHeaders.CONTENT_LANGUAGE, page.contentLanguage());
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Проверяет, принимает ли клиент gzip (с ненулевым весом q).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!GZIP.equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Сравнивает If-None-Match с ETag; для GET допускается слабое сравнение (RFC 9110, 13.1.2).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет все страницы из кэша, например после обновления шаблонов.
+     */
+    public void invalidateAll() {
+        pages.invalidateAll();
+    }
+
+    /**
+     * @return число ответов из кэша (включая 304).
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return число отрисовок страниц шаблонизатором.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return число ответов 304.
+     */
+    public long getNotModified() {
+        return notModified.sum();
+    }
+
+    /**
+     * @return число страниц в кэше.
+     */
+    public long getSize() {
+        return pages.estimatedSize();
+    }
+
+    /**
+     * Отрисованная страница: тело, сжатое тело (или {@code null}, если страница слишком мала) и их ETag.
+     */
+    record CachedPage(byte[] body, byte[] gzip, String contentType, String contentLanguage, String etag, String gzipEtag) {
+
+        static CachedPage of(byte[] body, String contentType, String contentLanguage, int minCompressSize) {
+            String hash = hash(body);
+            byte[] gzip = body.length >= minCompressSize ? gzip(body) : null;
+            return new CachedPage(body, gzip, contentType, contentLanguage, '"' + hash + '"', '"' + hash + "-gz\"");
+        }
+
+        private static String hash(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+}
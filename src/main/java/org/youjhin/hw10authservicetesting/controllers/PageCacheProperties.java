@@ -0,0 +1,41 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки кэша отрисованных страниц ({@code auth.page-cache.*}).
+ * Кэшировать можно только страницы, содержимое которых не зависит от пользователя.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.page-cache")
+public class PageCacheProperties {
+
+    /** Использовать ли кэш страниц. */
+    private boolean enabled = true;
+
+    /** Пути страниц, отдаваемых из кэша. */
+    private List<String> paths = List.of("/login", "/register", "/errorpage", "/home");
+
+    /** Значение Cache-Control по умолчанию: браузер хранит страницу, но перепроверяет её по ETag. */
+    private String cacheControl = "no-cache";
+
+    /** Значения Cache-Control для отдельных путей; страницы для вошедших пользователей не должны храниться в общих кэшах. */
+    private Map<String, String> pathCacheControl = new HashMap<>(Map.of("/home", "private, no-cache"));
+
+    /** Минимальный размер страницы в байтах, начиная с которого хранится сжатый вариант. */
+    private int minCompressSize = 256;
+
+    /** Максимальное число страниц в кэше (путь с параметрами запроса — отдельная страница). */
+    private long maximumSize = 256;
+
+    /** Время жизни отрисованной страницы в кэше. */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,123 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.security.LoginThrottle;
+import org.youjhin.hw10authservicetesting.security.PasswordHashingBusyException;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.services.interfaces.ReactiveAuthService;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+
+/**
+ * JSON-обработчики неблокирующего API аутентификации ({@code /api/auth/*}).
+ * Регистрация и вход принимают {@code {"username": ..., "password": ...}}, выход — токен доступа
+ * в заголовке {@code Authorization: Bearer}. Попытки входа учитываются тем же {@link LoginThrottle},
+ * что и {@code POST /login}: при превышении лимита ответ 429 с заголовком Retry-After.
+ */
+public class ReactiveAuthHandler {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ReactiveAuthService reactiveAuthService;
+    private final AccessTokenService accessTokenService;
+    @Nullable
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * @param reactiveAuthService Реактивный сервис аутентификации.
+     * @param accessTokenService Сервис токенов доступа.
+     * @param loginThrottle Ограничитель частоты попыток входа или {@code null}, если ограничение выключено.
+     */
+    public ReactiveAuthHandler(ReactiveAuthService reactiveAuthService, AccessTokenService accessTokenService,
+                               @Nullable LoginThrottle loginThrottle) {
+        this.reactiveAuthService = reactiveAuthService;
+        this.accessTokenService = accessTokenService;
+        this.loginThrottle = loginThrottle;
+    }
+
+    /**
+     * @return маршруты реактивного API.
+     */
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route(POST("/api/auth/register"), this::register)
+                .andRoute(POST("/api/auth/login"), this::login)
+                .andRoute(POST("/api/auth/logout"), this::logout)
+                .filter((request, next) -> next.handle(request)
+                        .onErrorResume(e -> e instanceof PasswordHashingBusyException || e instanceof RejectedExecutionException,
+                                e -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build()));
+    }
+
+    private Mono<ServerResponse> register(ServerRequest request) {
+        return request.bodyToMono(Credentials.class)
+                .flatMap(credentials -> {
+                    UserEntity user = new UserEntity();
+                    user.setUsername(credentials.username());
+                    user.setPassword(credentials.password());
+                    return reactiveAuthService.register(user);
+                })
+                .flatMap(registered -> registered
+                        ? ServerResponse.status(HttpStatus.CREATED).build()
+                        : json(ServerResponse.status(HttpStatus.CONFLICT), Map.of("error", "Пользователь с таким именем уже существует")));
+    }
+
+    private Mono<ServerResponse> login(ServerRequest request) {
+        return request.bodyToMono(Credentials.class)
+                .flatMap(credentials -> {
+                    long wait = loginThrottle == null ? 0 : loginThrottle.tryAcquire(credentials.username(), clientAddress(request));
+                    if (wait > 0) {
+                        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))))
+                                .build();
+                    }
+                    return reactiveAuthService.authenticate(credentials.username(), credentials.password())
+                            .flatMap(result -> result.isSuccess()
+                                    ? json(ServerResponse.ok(), Map.of(
+                                            "userId", result.userId(),
+                                            "sessionId", result.sessionId(),
+                                            "accessToken", result.accessToken()))
+                                    : json(ServerResponse.status(HttpStatus.UNAUTHORIZED), Map.of("reason", result.failureReason())));
+                });
+    }
+
+    private Mono<ServerResponse> logout(ServerRequest request) {
+        String header = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return ServerResponse.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return Mono.justOrEmpty(accessTokenService.verify(header.substring(BEARER_PREFIX.length())))
+                .flatMap(token -> reactiveAuthService.logoutSession(token.sessionId(), token.userId(), token.username()).then(ServerResponse.noContent().build()))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.UNAUTHORIZED).build()));
+    }
+
+    /**
+     * Адрес клиента в том же виде, что {@code HttpServletRequest#getRemoteAddr()} у {@code POST /login}.
+     */
+    private static String clientAddress(ServerRequest request) {
+        return request.remoteAddress()
+                .map(address -> address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString())
+                .orElse("unknown");
+    }
+
+    private static Mono<ServerResponse> json(ServerResponse.BodyBuilder builder, Object body) {
+        return builder.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    /**
+     * Тело запросов регистрации и входа.
+     */
+    public record Credentials(String username, String password) {
+    }
+}
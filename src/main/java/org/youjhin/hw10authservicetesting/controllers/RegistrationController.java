@@ -3,11 +3,16 @@ package org.youjhin.hw10authservicetesting.controllers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.youjhin.hw10authservicetesting.models.UserEntity;
 import org.youjhin.hw10authservicetesting.services.AuthServiceImpl;
 
+import java.util.Map;
+
 /**
  * Контроллер для обработки запросов, связанных с регистрацией пользователей.
  * Этот класс отвечает за прием веб-запросов для регистрации новых пользователей,
@@ -48,4 +53,15 @@ public class RegistrationController {
         // Регистрация прошла успешно, перенаправляем на страницу входа
         return "redirect:/login";
     }
+
+    /**
+     * Проверяет, свободно ли имя пользователя (для подсказки в форме регистрации).
+     * @param username Имя пользователя.
+     * @return {@code {"available": true|false}}.
+     */
+    @GetMapping("/register/check")
+    @ResponseBody
+    public Map<String, Boolean> checkUsername(@RequestParam("username") String username) {
+        return Map.of("available", authService.isUsernameAvailable(username));
+    }
 }
@@ -0,0 +1,99 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.youjhin.hw10authservicetesting.services.imports.ImportFailure;
+import org.youjhin.hw10authservicetesting.services.imports.ImportProgress;
+import org.youjhin.hw10authservicetesting.services.imports.UserImportListener;
+import org.youjhin.hw10authservicetesting.services.imports.UserImportReader;
+import org.youjhin.hw10authservicetesting.services.imports.UserImporter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Контроллер массового импорта пользователей.
+ * Принимает CSV ({@code text/csv}) или NDJSON ({@code application/x-ndjson}) и по ходу импорта отдаёт NDJSON:
+ * строку {@code "type":"failure"} на каждую ошибку, {@code "type":"progress"} после каждой пачки
+ * и итоговую {@code "type":"done"}.
+ */
+@RestController
+public class UserImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final UserImporter userImporter;
+    private final ObjectMapper objectMapper;
+
+    public UserImportController(UserImporter userImporter, ObjectMapper objectMapper) {
+        this.userImporter = userImporter;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Импортирует пользователей из тела запроса.
+     * @param request Запрос с данными импорта.
+     * @param response Ответ, в который пишется ход импорта.
+     * @throws IOException если не удалось прочитать запрос или записать ответ.
+     */
+    @PostMapping(value = "/admin/users/import", consumes = {"text/csv", NDJSON})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportReader.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf(NDJSON))
+                ? UserImportReader.Format.NDJSON
+                : UserImportReader.Format.CSV;
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter writer = response.getWriter();
+        try {
+            ImportProgress result = userImporter.importUsers(request.getReader(), format, new UserImportListener() {
+                @Override
+                public void onFailure(ImportFailure failure) {
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("type", "failure");
+                    line.put("line", failure.line());
+                    line.put("username", failure.username());
+                    line.put("reason", failure.reason());
+                    line.put("message", failure.message());
+                    write(writer, line, false);
+                }
+
+                @Override
+                public void onProgress(ImportProgress progress) {
+                    write(writer, progress("progress", progress), true);
+                }
+            });
+            write(writer, progress("done", result), true);
+        } catch (IllegalArgumentException e) {
+            write(writer, Map.of("type", "error", "message", e.getMessage()), true);
+        }
+    }
+
+    private static Map<String, Object> progress(String type, ImportProgress progress) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", type);
+        line.put("processed", progress.processed());
+        line.put("imported", progress.imported());
+        line.put("failed", progress.failed());
+        return line;
+    }
+
+    private void write(PrintWriter writer, Map<String, Object> line, boolean flush) {
+        try {
+            writer.write(objectMapper.writeValueAsString(line));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        writer.write('\n');
+        if (flush) {
+            writer.flush();
+        }
+    }
+}
@@ -1,25 +1,55 @@
 package org.youjhin.hw10authservicetesting.models;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
 
+/**
+ * Сессия пользователя.
+ * Идентификатор назначается приложением ({@code SessionIdGenerator}) до сохранения, поэтому вставки сессий
+ * можно группировать в JDBC-пакеты, а идентификатор известен сразу после входа.
+ * Индексы поддерживают отзыв всех сессий пользователя и удаление истёкших сессий по времени создания.
+ */
 @Getter
 @Setter
 @Entity
-public class SessionEntity {
+@Table(indexes = {
+        @Index(name = "idx_session_user_created", columnList = "userId, createdAt"),
+        @Index(name = "idx_session_created", columnList = "createdAt")
+})
+public class SessionEntity implements Persistable<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private Long userId;
     private LocalDateTime createdAt;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted; // Признак того, что сессия уже есть в базе (для выбора persist вместо merge)
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
 }
@@ -0,0 +1,12 @@
+package org.youjhin.hw10authservicetesting.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сессия в административных списках.
+ * @param id Идентификатор сессии.
+ * @param userId Идентификатор пользователя.
+ * @param createdAt Время создания сессии.
+ */
+public record SessionSummary(Long id, Long userId, LocalDateTime createdAt) {
+}
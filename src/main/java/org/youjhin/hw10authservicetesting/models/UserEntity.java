@@ -1,21 +1,34 @@
 package org.youjhin.hw10authservicetesting.models;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * Пользователь.
+ * Имя пользователя уникально на уровне базы ({@value #USERNAME_CONSTRAINT}), поэтому регистрация может сразу
+ * выполнять вставку, а занятое имя распознаётся по нарушению ограничения.
+ */
 @Getter
 @Setter
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = UserEntity.USERNAME_CONSTRAINT, columnNames = "username"))
 public class UserEntity {
 
+    /** Имя ограничения уникальности имени пользователя. */
+    public static final String USERNAME_CONSTRAINT = "uk_user_username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false)
     private String username;
 
     private String password;
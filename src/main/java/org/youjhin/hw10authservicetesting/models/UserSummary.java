@@ -0,0 +1,9 @@
+package org.youjhin.hw10authservicetesting.models;
+
+/**
+ * Пользователь в административных списках: без хэша пароля.
+ * @param id Идентификатор пользователя.
+ * @param username Имя пользователя.
+ */
+public record UserSummary(Long id, String username) {
+}
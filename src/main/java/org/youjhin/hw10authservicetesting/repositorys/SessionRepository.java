@@ -1,9 +1,74 @@
 package org.youjhin.hw10authservicetesting.repositorys;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.models.SessionSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface SessionRepository extends JpaRepository<SessionEntity, Long> {
-    void deleteByUserId(Long userId);
+
+    /**
+     * Ищет сессию в пишущей транзакции, то есть всегда на основном узле базы:
+     * сессия проверяется сразу после входа, а после выхода реплика не должна её вернуть.
+     */
+    @Override
+    @Transactional
+    Optional<SessionEntity> findById(Long id);
+
+    /**
+     * Удаляет все сессии пользователя одним запросом, без загрузки сущностей.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from SessionEntity s where s.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Возвращает идентификаторы самых старых сессий, созданных раньше указанного момента.
+     */
+    @Query("select s.id from SessionEntity s where s.createdAt < :cutoff order by s.createdAt")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Удаляет сессии с указанными идентификаторами одним запросом.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from SessionEntity s where s.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает сессии, созданные после позиции {@code (afterCreatedAt, afterId)}, в порядке {@code (createdAt, id)}
+     * (keyset-пагинация по индексу времени создания; первичный ключ в InnoDB входит в каждый вторичный индекс).
+     */
+    @Transactional(readOnly = true)
+    @Query("select new org.youjhin.hw10authservicetesting.models.SessionSummary(s.id, s.userId, s.createdAt) "
+            + "from SessionEntity s "
+            + "where s.createdAt > :afterCreatedAt or (s.createdAt = :afterCreatedAt and s.id > :afterId) "
+            + "order by s.createdAt, s.id")
+    List<SessionSummary> findSummariesAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * То же, что {@link #findSummariesAfter}, для сессий одного пользователя (по индексу {@code (userId, createdAt)}).
+     */
+    @Transactional(readOnly = true)
+    @Query("select new org.youjhin.hw10authservicetesting.models.SessionSummary(s.id, s.userId, s.createdAt) "
+            + "from SessionEntity s "
+            + "where s.userId = :userId "
+            + "and (s.createdAt > :afterCreatedAt or (s.createdAt = :afterCreatedAt and s.id > :afterId)) "
+            + "order by s.createdAt, s.id")
+    List<SessionSummary> findSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                    @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                    @Param("afterId") long afterId, Limit limit);
 
 }
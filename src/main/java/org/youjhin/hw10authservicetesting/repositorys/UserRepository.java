@@ -1,12 +1,53 @@
 package org.youjhin.hw10authservicetesting.repositorys;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.youjhin.hw10authservicetesting.config.CacheConfig;
 import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.models.UserSummary;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
+    /**
+     * Ищет пользователя по имени. Поиск выполняется в транзакции только для чтения,
+     * поэтому при включённом чтении с реплик он обслуживается репликой.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME)
+    @Transactional(readOnly = true)
     Optional<UserEntity> findByUsername(String username);
 
+    /**
+     * Сохраняет пользователя и удаляет его запись из кэша поиска по имени,
+     * чтобы регистрация и смена пароля сразу были видны при следующем входе.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#p0.username")
+    <S extends UserEntity> S save(S entity);
+
+    /**
+     * Удаляет пользователя и его запись из кэша поиска по имени, чтобы удалённый пользователь
+     * не находился до истечения записи. Удаление по одному идентификатору ({@code deleteById}) кэш не очищает:
+     * имени пользователя в нём нет.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#p0.username")
+    void delete(UserEntity entity);
+
+    /**
+     * Возвращает пользователей с идентификатором больше указанного в порядке идентификаторов
+     * (keyset-пагинация по первичному ключу).
+     */
+    @Transactional(readOnly = true)
+    @Query("select new org.youjhin.hw10authservicetesting.models.UserSummary(u.id, u.username) from UserEntity u "
+            + "where u.id > :afterId order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") long afterId, Limit limit);
+
 }
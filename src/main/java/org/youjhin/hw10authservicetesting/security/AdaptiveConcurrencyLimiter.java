@@ -0,0 +1,146 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Адаптивный ограничитель числа одновременно обрабатываемых запросов (градиентный алгоритм).
+ * По каждому завершённому запросу обновляются две скользящие средние времени ответа: короткая (текущая нагрузка)
+ * и длинная (время ответа без очереди). Пока короткая не превышает длинную более чем в {@code rttTolerance} раз,
+ * лимит растёт на корень из себя; когда время ответа растёт — база данных замедлилась или BCrypt занял процессор, —
+ * лимит уменьшается пропорционально отношению средних, не более чем вдвое за шаг. Отказ обработчика
+ * (исключение или ответ 503) уменьшает лимит мультипликативно. Пока занято меньше половины лимита,
+ * запросы ничего не говорят о пределе пропускной способности, и лимит не растёт.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param initialLimit Начальный лимит.
+     * @param minLimit Минимальный лимит.
+     * @param maxLimit Максимальный лимит.
+     * @param rttTolerance Во сколько раз время ответа может превысить базовое, прежде чем лимит начнёт уменьшаться.
+     * @param smoothing Доля нового значения лимита при каждом обновлении (0..1).
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limits: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Занимает место для запроса, если текущий лимит не исчерпан.
+     * После обработки запроса нужно вызвать {@link #release(long, boolean)}.
+     * @return true, если запрос можно обрабатывать; false, если его нужно отклонить.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и учитывает время обработки запроса при пересчёте лимита.
+     * @param rttNanos Время обработки запроса в наносекундах.
+     * @param failed Завершился ли запрос отказом из-за перегрузки.
+     */
+    public void release(long rttNanos, boolean failed) {
+        int concurrency = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (failed) {
+                dropped.increment();
+                update(estimatedLimit * BACKOFF_RATIO);
+                return;
+            }
+            double rtt = Math.max(1, rttNanos);
+            shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / LONG_WINDOW;
+            // После спада нагрузки базовое время ответа возвращается быстрее, чем позволяет длинное окно
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            double gradient = Math.clamp(rttTolerance * longRtt / shortRtt, 0.5, 1.0);
+            if (gradient >= 1.0 && concurrency < estimatedLimit / 2) {
+                return;
+            }
+            double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            update(estimatedLimit * (1 - smoothing) + target * smoothing);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Базовое время ответа (длинная скользящая средняя) в миллисекундах.
+     */
+    public double getBaselineRttMillis() {
+        lock.lock();
+        try {
+            return longRtt / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
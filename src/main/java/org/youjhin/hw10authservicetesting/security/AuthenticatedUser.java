@@ -0,0 +1,12 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Пользователь аутентифицированного запроса (principal в контексте безопасности).
+ * Полномочия определяются по идентификатору ({@link UserAuthorities}), имя нужно для журнала аудита.
+ * @param userId Идентификатор пользователя.
+ * @param username Имя пользователя или {@code null}, если оно неизвестно (вход до появления имени в сессии или токене).
+ */
+public record AuthenticatedUser(Long userId, @Nullable String username) {
+}
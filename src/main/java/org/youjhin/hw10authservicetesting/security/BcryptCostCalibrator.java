@@ -0,0 +1,63 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Подбирает стоимость BCrypt под целевое время проверки пароля на текущем оборудовании.
+ * Каждый шаг стоимости удваивает время, поэтому стоимость повышается, пока следующий шаг укладывается в цель;
+ * время шага — медиана нескольких замеров. Калибровка занимает порядка двух целевых интервалов на замер.
+ */
+public class BcryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BcryptCostCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private final int samples;
+
+    /**
+     * @param samples Число замеров на каждом шаге стоимости.
+     */
+    public BcryptCostCalibrator(int samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * Выбирает наибольшую стоимость в {@code [minStrength, maxStrength]}, при которой проверка пароля
+     * укладывается в {@code target}. Если даже минимальная стоимость медленнее цели, возвращается минимальная.
+     * @param target Целевое время проверки.
+     * @param minStrength Нижняя граница стоимости.
+     * @param maxStrength Верхняя граница стоимости.
+     * @return стоимость BCrypt.
+     */
+    public int calibrate(Duration target, int minStrength, int maxStrength) {
+        long targetNanos = target.toNanos();
+        int strength = minStrength;
+        long nanos = measure(strength);
+        while (strength < maxStrength && nanos * 2 <= targetNanos) {
+            strength++;
+            nanos = measure(strength);
+        }
+        log.info("Calibrated BCrypt strength {} ({} ms per verification, target {} ms)",
+                strength, nanos / 1_000_000, target.toMillis());
+        return strength;
+    }
+
+    private long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        long[] times = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[samples / 2];
+    }
+}
@@ -0,0 +1,46 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder}, выполняющий хэширование и проверку паролей в {@link PasswordHashingExecutor}
+ * вместо потока запроса. Проверка необходимости перехэширования дешёвая и выполняется на месте.
+ * Операция, не дождавшаяся свободного потока пула, завершается {@link PasswordHashingBusyException};
+ * начавшаяся операция выполняется до конца.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    /**
+     * @param delegate Реальный кодировщик паролей.
+     * @param executor Пул, в котором выполняются операции кодировщика.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * @return кодировщик, выполняющий операции без пула (для задач со своим ограничением параллелизма).
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
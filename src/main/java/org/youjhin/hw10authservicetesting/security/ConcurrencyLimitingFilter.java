@@ -0,0 +1,59 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Фильтр, ограничивающий число одновременно обрабатываемых запросов {@code POST} к дорогим эндпоинтам
+ * (вход и регистрация): у каждого пути свой {@link AdaptiveConcurrencyLimiter}. Когда лимит исчерпан,
+ * запрос сразу получает 503 с заголовком Retry-After, не занимая поток в ожидании базы или BCrypt.
+ * Запросы {@code GET} (страницы) не ограничиваются и поэтому получают свободные потоки в первую очередь.
+ */
+public class ConcurrencyLimitingFilter extends OncePerRequestFilter {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters;
+
+    /**
+     * @param limiters Ограничители по пути запроса.
+     */
+    public ConcurrencyLimitingFilter(Map<String, AdaptiveConcurrencyLimiter> limiters) {
+        this.limiters = Map.copyOf(limiters);
+    }
+
+    public Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+        return limiters;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !limiters.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(request.getServletPath());
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            // 503 от обработчика означает, что перегружен пул хэширования паролей
+            failed = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничитель частоты попыток входа по имени пользователя и по адресу клиента.
+ * Каждый ключ получает ведро токенов, реализованное как GCRA: состояние — одно число
+ * (теоретическое время следующей попытки), которое обновляется через CAS без блокировок.
+ * Вёдра хранятся в ограниченном по размеру кэше Caffeine и забываются, когда полностью восстановились,
+ * поэтому память не растёт при переборе случайных имён и адресов.
+ */
+public class LoginThrottle {
+
+    private final Limit usernameLimit;
+    private final Limit clientLimit;
+    private final Ticker ticker;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByClient = new LongAdder();
+
+    /**
+     * @param usernameCapacity Число попыток подряд для имени пользователя.
+     * @param usernameRefillPeriod Время восстановления одной попытки для имени пользователя.
+     * @param clientCapacity Число попыток подряд для адреса клиента.
+     * @param clientRefillPeriod Время восстановления одной попытки для адреса клиента.
+     * @param maximumKeys Максимальное число отслеживаемых ключей каждого вида.
+     */
+    public LoginThrottle(int usernameCapacity, Duration usernameRefillPeriod,
+                         int clientCapacity, Duration clientRefillPeriod, long maximumKeys) {
+        this(usernameCapacity, usernameRefillPeriod, clientCapacity, clientRefillPeriod, maximumKeys, Ticker.systemTicker());
+    }
+
+    LoginThrottle(int usernameCapacity, Duration usernameRefillPeriod,
+                  int clientCapacity, Duration clientRefillPeriod, long maximumKeys, Ticker ticker) {
+        this.ticker = ticker;
+        this.usernameLimit = new Limit(usernameCapacity, usernameRefillPeriod, maximumKeys, ticker);
+        this.clientLimit = new Limit(clientCapacity, clientRefillPeriod, maximumKeys, ticker);
+    }
+
+    /**
+     * Учитывает попытку входа. Сначала проверяется адрес клиента, затем имя пользователя.
+     * @param username Имя пользователя из запроса (может быть null).
+     * @param clientAddress Адрес клиента.
+     * @return 0, если попытка разрешена, иначе сколько наносекунд ждать до следующей попытки.
+     */
+    public long tryAcquire(String username, String clientAddress) {
+        long now = ticker.read();
+        long wait = clientLimit.tryAcquire(clientAddress, now);
+        if (wait > 0) {
+            rejectedByClient.increment();
+            return wait;
+        }
+        if (username != null) {
+            wait = usernameLimit.tryAcquire(username, now);
+            if (wait > 0) {
+                rejectedByUsername.increment();
+                return wait;
+            }
+        }
+        allowed.increment();
+        return 0;
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejectedByUsername() {
+        return rejectedByUsername.sum();
+    }
+
+    public long getRejectedByClient() {
+        return rejectedByClient.sum();
+    }
+
+    public long getTrackedUsernames() {
+        return usernameLimit.buckets.estimatedSize();
+    }
+
+    public long getTrackedClients() {
+        return clientLimit.buckets.estimatedSize();
+    }
+
+    /**
+     * Набор вёдер с общими параметрами.
+     */
+    private static final class Limit {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Cache<String, AtomicLong> buckets;
+
+        Limit(int capacity, Duration refillPeriod, long maximumKeys, Ticker ticker) {
+            this.intervalNanos = refillPeriod.toNanos();
+            this.burstNanos = intervalNanos * capacity;
+            // Через burst после последней попытки ведро снова полное и неотличимо от нового
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .ticker(ticker)
+                    .build();
+        }
+
+        long tryAcquire(String key, long now) {
+            AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр, ограничивающий частоту запросов {@code POST /login} до того, как начнётся поиск пользователя
+ * и проверка пароля. При превышении лимита отвечает 429 с заголовком Retry-After.
+ * Адрес клиента берётся из {@link HttpServletRequest#getRemoteAddr()}; за прокси нужно включить
+ * {@code server.forward-headers-strategy}, чтобы это был адрес клиента, а не прокси.
+ */
+public class LoginThrottlingFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+
+    public LoginThrottlingFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !"/login".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long wait = loginThrottle.tryAcquire(request.getParameter("username"), request.getRemoteAddr());
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
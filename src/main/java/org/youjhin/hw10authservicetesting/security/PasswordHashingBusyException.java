@@ -0,0 +1,12 @@
+package org.youjhin.hw10authservicetesting.security;
+
+/**
+ * Исключение, сигнализирующее, что пул хэширования паролей перегружен:
+ * очередь заполнена или результат не получен за отведённое время.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
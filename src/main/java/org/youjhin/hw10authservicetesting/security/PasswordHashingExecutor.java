@@ -0,0 +1,168 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Выделенный пул потоков для CPU-затратных операций с паролями (BCrypt).
+ * Пул имеет фиксированный размер и ограниченную очередь, поэтому всплеск входов не занимает
+ * все потоки сервлет-контейнера: при переполнении очереди или превышении времени ожидания
+ * вызывающий сразу получает {@link PasswordHashingBusyException}.
+ * <p>
+ * Таймаут ограничивает только ожидание в очереди: задача, не начавшая выполняться за это время,
+ * снимается с очереди и уже не запускается. Начавшуюся задачу вызывающий дожидается до конца — BCrypt
+ * нельзя прервать, и отказ после начала вычисления лишь выбросил бы уже потраченное процессорное время.
+ * Собирает статистику глубины очереди, времени ожидания и числа отказов.
+ */
+public class PasswordHashingExecutor implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutNanos;
+
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    /**
+     * @param threads Число потоков пула.
+     * @param queueCapacity Ёмкость очереди ожидающих задач.
+     * @param waitTimeout Максимальное время ожидания задачи в очереди до начала выполнения.
+     */
+    public PasswordHashingExecutor(int threads, int queueCapacity, Duration waitTimeout) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * Выполняет задачу в пуле и ожидает её результат. Если за настроенный таймаут задача не начала
+     * выполняться, она снимается с очереди; начавшаяся задача дожидается завершения.
+     * @param task Задача хэширования или проверки пароля.
+     * @return результат задачи.
+     * @throws PasswordHashingBusyException если очередь заполнена или задача не дождалась свободного потока.
+     */
+    public <T> T execute(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        FutureTask<T> future = new FutureTask<>(() -> {
+            totalWaitNanos.add(System.nanoTime() - enqueuedAt);
+            try {
+                return task.call();
+            } finally {
+                completed.increment();
+            }
+        });
+        // Задачу забирает либо поток пула (и выполняет), либо вызывающий по таймауту (и отменяет)
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable queued = () -> {
+            if (claimed.compareAndSet(false, true)) {
+                future.run();
+            }
+        };
+        try {
+            executor.execute(queued);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingBusyException("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (claimed.compareAndSet(false, true)) {
+                executor.remove(queued);
+                timeouts.increment();
+                throw new PasswordHashingBusyException("Password hashing timed out in queue");
+            }
+            return awaitRunning(future);
+        } catch (InterruptedException e) {
+            if (claimed.compareAndSet(false, true)) {
+                executor.remove(queued);
+            }
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Дожидается задачи, которая уже выполняется.
+     */
+    private static <T> T awaitRunning(FutureTask<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            throw failure(e);
+        }
+    }
+
+    private static RuntimeException failure(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    /** @return текущее число задач в очереди. */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /** @return число задач, отклонённых из-за заполненной очереди. */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /** @return число задач, снятых с очереди, потому что они не начали выполняться за таймаут. */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /** @return число выполненных задач. */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /** @return суммарное время ожидания задач в очереди, нс. */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    /** @return число потоков пула. */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.youjhin.hw10authservicetesting.controllers.LogInAndOutController;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, аутентифицирующий запрос по сессии, созданной при входе.
+ * Идентификатор сессии берётся из HTTP-сессии и проверяется в {@link SessionStore}; если сессия
+ * действительна, в контекст безопасности помещается аутентификация с идентификатором и именем пользователя
+ * ({@link AuthenticatedUser}) и его полномочиями ({@link UserAuthorities}).
+ * Истёкшая или завершённая сессия удаляется из HTTP-сессии.
+ */
+public class SessionAuthenticationFilter extends OncePerRequestFilter {
+
+    private final SessionStore sessionStore;
+    private final UserAuthorities userAuthorities;
+
+    public SessionAuthenticationFilter(SessionStore sessionStore, UserAuthorities userAuthorities) {
+        this.sessionStore = sessionStore;
+        this.userAuthorities = userAuthorities;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpSession httpSession = request.getSession(false);
+        if (httpSession != null
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && httpSession.getAttribute(LogInAndOutController.SESSION_ID_ATTRIBUTE) instanceof Long sessionId) {
+            sessionStore.findById(sessionId).ifPresentOrElse(session -> {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        new AuthenticatedUser(session.getUserId(), username(httpSession)), sessionId,
+                        userAuthorities.forUser(session.getUserId())));
+                SecurityContextHolder.setContext(context);
+            }, () -> httpSession.removeAttribute(LogInAndOutController.SESSION_ID_ATTRIBUTE));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String username(HttpSession httpSession) {
+        return httpSession.getAttribute(LogInAndOutController.USERNAME_ATTRIBUTE) instanceof String username ? username : null;
+    }
+}
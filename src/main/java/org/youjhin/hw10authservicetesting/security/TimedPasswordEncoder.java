@@ -0,0 +1,59 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PasswordEncoder}, замеряющий время хэширования ({@code auth.password.encode}) и проверки
+ * ({@code auth.password.matches}, с тегом результата) паролей.
+ * Стоит внутри {@link BoundedPasswordEncoder}, поэтому таймеры показывают чистое время BCrypt,
+ * а ожидание в очереди пула видно по метрикам {@link PasswordHashingExecutor}.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchedTimer;
+    private final Timer mismatchedTimer;
+
+    /**
+     * @param delegate Реальный кодировщик паролей.
+     * @param meterRegistry Реестр метрик.
+     */
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("Время хэширования пароля")
+                .register(meterRegistry);
+        this.matchedTimer = matchesTimer(meterRegistry, "true");
+        this.mismatchedTimer = matchesTimer(meterRegistry, "false");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchedTimer : mismatchedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer matchesTimer(MeterRegistry meterRegistry, String matched) {
+        return Timer.builder("auth.password.matches")
+                .description("Время проверки пароля")
+                .tag("matched", matched)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Полномочия аутентифицированного пользователя.
+ * Роль администратора ({@value #ADMIN_ROLE}) получают пользователи из {@code auth.admin.user-ids};
+ * остальные пользователи полномочий не имеют.
+ */
+public class UserAuthorities {
+
+    /** Роль, необходимая для эндпоинтов {@code /admin/**}. */
+    public static final String ADMIN_ROLE = "ADMIN";
+
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = AuthorityUtils.createAuthorityList("ROLE_" + ADMIN_ROLE);
+
+    private final Set<Long> adminUserIds;
+
+    /**
+     * @param adminUserIds Идентификаторы администраторов.
+     */
+    public UserAuthorities(Set<Long> adminUserIds) {
+        this.adminUserIds = Set.copyOf(adminUserIds);
+    }
+
+    /**
+     * @param userId Идентификатор пользователя.
+     * @return полномочия пользователя.
+     */
+    public Collection<GrantedAuthority> forUser(Long userId) {
+        return adminUserIds.contains(userId) ? ADMIN_AUTHORITIES : AuthorityUtils.NO_AUTHORITIES;
+    }
+}
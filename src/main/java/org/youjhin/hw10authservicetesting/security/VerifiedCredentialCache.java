@@ -0,0 +1,169 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.youjhin.hw10authservicetesting.security.config.CredentialCacheProperties;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш недавно проверенных учётных данных, позволяющий не повторять BCrypt при частых входах
+ * с одними и теми же именем и паролем (сервисные клиенты, повторы SSO).
+ * Для каждого имени хранится только HMAC-SHA256 от имени, пароля и хэша пароля из базы на ключе,
+ * который создаётся при запуске и не покидает память процесса; открытый пароль не хранится.
+ * Поскольку в HMAC входит хэш из базы, смена пароля (и перехэширование) делает запись недействительной.
+ * Пользователь ищется через кэш пользователей, поэтому при удалении пользователя его запись нужно забыть явно
+ * ({@link #invalidate(String)}, вызывается из {@code AuthServiceImpl.deleteUser}).
+ * Записи живут {@code auth.credential-cache.ttl} с момента проверки, число записей ограничено.
+ * <p>
+ * Экземпляры {@link Mac} берутся из небольшого общего пула, а не из {@link ThreadLocal}: с виртуальными потоками
+ * каждый вход выполняется в новом потоке и платил бы за {@code Mac.getInstance} и {@code init} при каждом вызове.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    /** Сколько свободных {@link Mac} держит пул; одновременно вычисляется не больше HMAC, чем потоков-носителей. */
+    private static final int POOLED_MACS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final boolean enabled;
+    private final Cache<String, byte[]> verified;
+    private final SecretKey key;
+    private final BlockingQueue<Mac> macs = new ArrayBlockingQueue<>(POOLED_MACS);
+    private final LongAdder macsCreated = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param properties Настройки кэша.
+     */
+    @Autowired
+    public VerifiedCredentialCache(CredentialCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    VerifiedCredentialCache(CredentialCacheProperties properties, Ticker ticker) {
+        this.enabled = properties.isEnabled();
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaximumSize())
+                .ticker(ticker)
+                .build();
+        this.key = generateKey();
+    }
+
+    /**
+     * Проверяет, подтверждались ли эти учётные данные недавно полной проверкой пароля.
+     * @param username Имя пользователя.
+     * @param password Пароль из запроса.
+     * @param storedHash Текущий хэш пароля пользователя из базы.
+     * @return true, если пароль можно считать верным без BCrypt.
+     */
+    public boolean isVerified(String username, String password, String storedHash) {
+        if (!enabled) {
+            return false;
+        }
+        byte[] expected = verified.getIfPresent(username);
+        if (expected != null && MessageDigest.isEqual(expected, mac(username, password, storedHash))) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Запоминает учётные данные, прошедшие полную проверку пароля.
+     * @param username Имя пользователя.
+     * @param password Проверенный пароль.
+     * @param storedHash Хэш пароля пользователя, с которым выполнена проверка.
+     */
+    public void recordVerified(String username, String password, String storedHash) {
+        if (enabled) {
+            verified.put(username, mac(username, password, storedHash));
+        }
+    }
+
+    /**
+     * Забывает учётные данные пользователя, например при смене пароля или удалении пользователя.
+     * @param username Имя пользователя.
+     */
+    public void invalidate(String username) {
+        verified.invalidate(username);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getSize() {
+        return verified.estimatedSize();
+    }
+
+    /** @return число созданных экземпляров {@link Mac}. */
+    long getMacsCreated() {
+        return macsCreated.sum();
+    }
+
+    private byte[] mac(String username, String password, String storedHash) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        update(mac, username);
+        update(mac, password);
+        update(mac, storedHash);
+        byte[] result = mac.doFinal(); // doFinal сбрасывает состояние, экземпляр можно вернуть в пул
+        macs.offer(mac);
+        return result;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            macsCreated.increment();
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Добавляет строку с префиксом длины, чтобы разные разбиения на имя и пароль не давали одинаковый HMAC.
+     */
+    private static void update(Mac mac, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        mac.update(bytes);
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance(ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Set;
+
+/**
+ * Настройки доступа к административным эндпоинтам {@code /admin/**} ({@code auth.admin.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.admin")
+public class AdminProperties {
+
+    /** Идентификаторы пользователей, получающих роль администратора; по умолчанию администраторов нет. */
+    private Set<Long> userIds = Set.of();
+}
@@ -0,0 +1,49 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.youjhin.hw10authservicetesting.security.AdaptiveConcurrencyLimiter;
+import org.youjhin.hw10authservicetesting.security.ConcurrencyLimitingFilter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Конфигурация адаптивного ограничения числа одновременных запросов к входу и регистрации.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auth.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Предоставляет фильтр с отдельным ограничителем для каждого пути.
+     * @param properties настройки ограничения ({@code auth.concurrency-limit.*}).
+     * @return экземпляр {@link ConcurrencyLimitingFilter}.
+     */
+    @Bean
+    public ConcurrencyLimitingFilter concurrencyLimitingFilter(ConcurrencyLimitProperties properties) {
+        Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+        properties.getPaths().forEach(path -> limiters.put(path, new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getRttTolerance(), properties.getSmoothing())));
+        return new ConcurrencyLimitingFilter(limiters);
+    }
+
+    /**
+     * Регистрирует фильтр сразу после ограничителя частоты входа: запросы, отклонённые по частоте,
+     * не занимают места и не искажают измеряемое время ответа, а отклонённые по лимиту не доходят
+     * до цепочки фильтров безопасности.
+     * @param concurrencyLimitingFilter фильтр ограничения числа одновременных запросов.
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitingFilter> concurrencyLimitingFilterRegistration(
+            ConcurrencyLimitingFilter concurrencyLimitingFilter) {
+        FilterRegistrationBean<ConcurrencyLimitingFilter> registration = new FilterRegistrationBean<>(concurrencyLimitingFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Настройки адаптивного ограничения числа одновременных запросов к входу и регистрации
+ * ({@code auth.concurrency-limit.*}). Лимит каждого пути подстраивается по времени ответа
+ * в пределах {@code min-limit}..{@code max-limit}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /** Включено ли ограничение. */
+    private boolean enabled = false;
+
+    /** Пути {@code POST}-запросов, у каждого из которых свой лимит. */
+    private List<String> paths = List.of("/login", "/register");
+
+    /** Начальный лимит одновременных запросов. */
+    private int initialLimit = 20;
+
+    /** Минимальный лимит одновременных запросов. */
+    private int minLimit = 4;
+
+    /**
+     * Максимальный лимит одновременных запросов. Сумма по всем путям должна быть заметно меньше числа потоков
+     * Tomcat ({@code server.tomcat.threads.max}), чтобы страницам всегда оставались свободные потоки.
+     */
+    private int maxLimit = 64;
+
+    /** Во сколько раз время ответа может превысить базовое, прежде чем лимит начнёт уменьшаться. */
+    private double rttTolerance = 1.5;
+
+    /** Доля нового значения лимита при каждом обновлении (0..1). */
+    private double smoothing = 0.2;
+}
@@ -0,0 +1,26 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша проверенных учётных данных ({@code auth.credential-cache.*}).
+ * Повторный вход с теми же именем и паролем в течение {@code ttl} проверяется без BCrypt.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.credential-cache")
+public class CredentialCacheProperties {
+
+    /** Включён ли кэш проверенных учётных данных. */
+    private boolean enabled = false;
+
+    /** Сколько времени после успешной проверки BCrypt повторный вход проверяется по кэшу. */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /** Максимальное число пользователей в кэше. */
+    private long maximumSize = 10_000;
+}
@@ -0,0 +1,36 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничения частоты попыток входа ({@code auth.throttle.*}).
+ * Для каждого имени пользователя и каждого адреса клиента ведётся своё «ведро токенов»:
+ * {@code capacity} попыток подряд, затем одна попытка за каждый {@code refill-period}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.throttle")
+public class LoginThrottleProperties {
+
+    /** Включено ли ограничение частоты попыток входа. */
+    private boolean enabled = true;
+
+    /** Число попыток входа подряд для одного имени пользователя. */
+    private int usernameCapacity = 5;
+
+    /** Время восстановления одной попытки для имени пользователя. */
+    private Duration usernameRefillPeriod = Duration.ofSeconds(12);
+
+    /** Число попыток входа подряд для одного адреса клиента. */
+    private int clientCapacity = 20;
+
+    /** Время восстановления одной попытки для адреса клиента. */
+    private Duration clientRefillPeriod = Duration.ofSeconds(3);
+
+    /** Максимальное число отслеживаемых ключей каждого вида; при превышении редкие ключи вытесняются. */
+    private long maximumKeys = 100_000;
+}
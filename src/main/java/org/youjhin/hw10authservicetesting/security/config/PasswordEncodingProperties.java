@@ -0,0 +1,30 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки стоимости хэширования паролей ({@code auth.password.*}).
+ * Если {@code bcrypt-strength} не задан, стоимость BCrypt подбирается при запуске под
+ * {@code target-verify-time} на текущем оборудовании.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordEncodingProperties {
+
+    /** Фиксированная стоимость BCrypt (log2 числа раундов); отключает калибровку. */
+    private Integer bcryptStrength;
+
+    /** Целевое время одной проверки пароля при калибровке. */
+    private Duration targetVerifyTime = Duration.ofMillis(250);
+
+    /** Нижняя граница стоимости при калибровке. */
+    private int minStrength = 10;
+
+    /** Верхняя граница стоимости при калибровке. */
+    private int maxStrength = 16;
+}
@@ -0,0 +1,28 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки выделенного пула для хэширования и проверки паролей ({@code auth.hashing.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.hashing")
+public class PasswordHashingProperties {
+
+    /** Число потоков пула; по умолчанию равно числу доступных ядер. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Максимальное число задач, ожидающих свободный поток. */
+    private int queueCapacity = 64;
+
+    /**
+     * Сколько задача может ждать свободный поток, прежде чем вызывающий получит ответ «занято».
+     * Время самого хэширования не ограничивается: начавшаяся задача выполняется до конца.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(2);
+}
@@ -1,5 +1,9 @@
 package org.youjhin.hw10authservicetesting.security.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -7,8 +11,24 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.youjhin.hw10authservicetesting.security.BcryptCostCalibrator;
+import org.youjhin.hw10authservicetesting.security.BoundedPasswordEncoder;
+import org.youjhin.hw10authservicetesting.security.LoginThrottle;
+import org.youjhin.hw10authservicetesting.security.LoginThrottlingFilter;
+import org.youjhin.hw10authservicetesting.security.PasswordHashingExecutor;
+import org.youjhin.hw10authservicetesting.security.SessionAuthenticationFilter;
+import org.youjhin.hw10authservicetesting.security.TimedPasswordEncoder;
+import org.youjhin.hw10authservicetesting.security.UserAuthorities;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.security.token.TokenAuthenticationFilter;
+import org.youjhin.hw10authservicetesting.security.token.TokenProperties;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+
+import java.util.Map;
 
 /**
  * Конфигурация безопасности веб-приложения.
@@ -21,33 +41,116 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true)
 public class WebSecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final int CALIBRATION_SAMPLES = 5;
+
     /**
      * Конфигурирует цепочку фильтров безопасности для обработки запросов HTTP.
      * Определяет правила авторизации для различных эндпоинтов. Настраивает CSRF защиту, доступ к определенным страницам
-     * без аутентификации и требование аутентификации для остальных запросов.
+     * без аутентификации и требование аутентификации для остальных запросов. Проверка состояния и выгрузка метрик
+     * для Prometheus доступны без аутентификации; закрывать их следует на уровне сети.
+     * Запрос считается аутентифицированным, если сессия, созданная при входе, действительна в {@link SessionStore},
+     * или, в режиме токенов, если предъявлен действительный токен доступа (проверяется без обращения к базе).
+     * Административные эндпоинты {@code /admin/**} доступны только пользователям с ролью администратора.
      * @param httpSecurity настройки безопасности HTTP.
+     * @param sessionStore хранилище сессий для проверки сессии на каждом запросе.
+     * @param accessTokenService сервис токенов доступа, если режим токенов включён.
+     * @param tokenProperties настройки токенов доступа.
+     * @param userAuthorities полномочия пользователей.
      * @return сконфигурированная цепочка фильтров безопасности.
      * @throws Exception если произошла ошибка во время конфигурации.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity httpSecurity, SessionStore sessionStore,
+                                           ObjectProvider<AccessTokenService> accessTokenService,
+                                           TokenProperties tokenProperties, UserAuthorities userAuthorities) throws Exception {
+        accessTokenService.ifAvailable(tokenService -> httpSecurity.addFilterBefore(
+                new TokenAuthenticationFilter(tokenService, tokenProperties.getCookieName(), userAuthorities),
+                AnonymousAuthenticationFilter.class));
         httpSecurity.csrf(AbstractHttpConfigurer::disable)
+                .addFilterBefore(new SessionAuthenticationFilter(sessionStore, userAuthorities), AnonymousAuthenticationFilter.class)
                 .authorizeHttpRequests(authorizationManagerRequestMatcherRegistry ->
                         authorizationManagerRequestMatcherRegistry
-                                .requestMatchers("/login", "/register", "/errorpage", "/exit").permitAll()
+                                .requestMatchers("/login", "/register", "/register/check", "/errorpage", "/exit").permitAll()
+                                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                                 .requestMatchers("/home").authenticated()
+                                .requestMatchers("/admin/**").hasRole(UserAuthorities.ADMIN_ROLE)
                                 .anyRequest().authenticated()
                 );
         return httpSecurity.build();
     }
 
+    /**
+     * Предоставляет полномочия пользователей: роль администратора для {@code auth.admin.user-ids}.
+     * @param properties настройки административного доступа ({@code auth.admin.*}).
+     * @return экземпляр {@link UserAuthorities}.
+     */
+    @Bean
+    public UserAuthorities userAuthorities(AdminProperties properties) {
+        return new UserAuthorities(properties.getUserIds());
+    }
+
+    /**
+     * Предоставляет выделенный пул для хэширования и проверки паролей.
+     * @param properties настройки пула ({@code auth.hashing.*}).
+     * @return экземпляр {@link PasswordHashingExecutor}.
+     */
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor(PasswordHashingProperties properties) {
+        return new PasswordHashingExecutor(properties.getThreads(), properties.getQueueCapacity(), properties.getWaitTimeout());
+    }
+
     /**
      * Предоставляет кодировщик паролей для использования в приложении.
-     * Использует {@link BCryptPasswordEncoder} для шифрования и проверки паролей.
+     * Хэши сохраняются с префиксом алгоритма ({@code {bcrypt}$2a$12$...}) через {@link DelegatingPasswordEncoder};
+     * хэши без префикса, созданные раньше, проверяются как BCrypt и перехэшируются при входе.
+     * Стоимость BCrypt берётся из {@code auth.password.bcrypt-strength} либо подбирается при запуске
+     * {@link BcryptCostCalibrator} под целевое время проверки. Операции выполняются
+     * в {@link PasswordHashingExecutor}, чтобы BCrypt не занимал потоки обработки запросов; время самих операций
+     * замеряется {@link TimedPasswordEncoder}.
+     * @param properties настройки стоимости хэширования ({@code auth.password.*}).
+     * @param passwordHashingExecutor пул для операций с паролями.
+     * @param meterRegistry реестр метрик.
      * @return экземпляр {@link PasswordEncoder}.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncodingProperties properties, PasswordHashingExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry) {
+        int strength = properties.getBcryptStrength() != null
+                ? properties.getBcryptStrength()
+                : new BcryptCostCalibrator(CALIBRATION_SAMPLES).calibrate(
+                        properties.getTargetVerifyTime(), properties.getMinStrength(), properties.getMaxStrength());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(strength)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength));
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(delegating, meterRegistry), passwordHashingExecutor);
+    }
+
+    /**
+     * Предоставляет ограничитель частоты попыток входа по имени пользователя и адресу клиента.
+     * @param properties настройки ограничения ({@code auth.throttle.*}).
+     * @return экземпляр {@link LoginThrottle}.
+     */
+    @Bean
+    public LoginThrottle loginThrottle(LoginThrottleProperties properties) {
+        return new LoginThrottle(properties.getUsernameCapacity(), properties.getUsernameRefillPeriod(),
+                properties.getClientCapacity(), properties.getClientRefillPeriod(), properties.getMaximumKeys());
+    }
+
+    /**
+     * Регистрирует фильтр ограничения частоты входа перед цепочкой фильтров безопасности,
+     * чтобы отклонённые попытки не доходили ни до проверки сессии, ни до базы, ни до BCrypt.
+     * @param loginThrottle ограничитель частоты попыток входа.
+     * @param properties настройки ограничения ({@code auth.throttle.*}).
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<LoginThrottlingFilter> loginThrottlingFilter(LoginThrottle loginThrottle,
+                                                                               LoginThrottleProperties properties) {
+        FilterRegistrationBean<LoginThrottlingFilter> registration =
+                new FilterRegistrationBean<>(new LoginThrottlingFilter(loginThrottle));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        registration.setEnabled(properties.isEnabled());
+        return registration;
     }
 }
@@ -0,0 +1,164 @@
+package org.youjhin.hw10authservicetesting.security.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Выдача и локальная проверка подписанных токенов доступа (JWT, HMAC-SHA256).
+ * Ключи разбираются один раз при запуске и выбираются по заголовку {@code kid}, что позволяет ротацию
+ * без инвалидации уже выданных токенов. Проверка не обращается к базе данных.
+ * Отозванные при выходе токены хранятся в компактном списке (идентификатор сессии → срок токена)
+ * только до истечения самого токена. Выход из всех сессий пользователя запоминает момент отзыва:
+ * токены пользователя, выданные не позже него, отклоняются, пока не истекли бы сами.
+ */
+@Service
+@ConditionalOnProperty(prefix = "auth.token", name = "enabled", havingValue = "true")
+public class AccessTokenService {
+
+    private static final String USERNAME_CLAIM = "name";
+
+    private final Map<String, SecretKey> keys;
+    private final String activeKeyId;
+    private final Duration ttl;
+    private final Clock clock;
+    private final JwtParser parser;
+    private final Map<Long, Long> revokedUntil = new ConcurrentHashMap<>(); // jti → срок токена, epoch-секунды
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>(); // userId → момент отзыва, epoch-секунды
+
+    /**
+     * @param properties Настройки токенов.
+     */
+    @Autowired
+    public AccessTokenService(TokenProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    AccessTokenService(TokenProperties properties, Clock clock) {
+        if (properties.getKeys().isEmpty() || !properties.getKeys().containsKey(properties.getActiveKeyId())) {
+            throw new IllegalStateException("auth.token.active-key-id must reference one of auth.token.keys");
+        }
+        Map<String, SecretKey> parsedKeys = new LinkedHashMap<>();
+        properties.getKeys().forEach((kid, secret) -> parsedKeys.put(kid, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))));
+        this.keys = Map.copyOf(parsedKeys);
+        this.activeKeyId = properties.getActiveKeyId();
+        this.ttl = properties.getTtl();
+        this.clock = clock;
+        this.parser = Jwts.parserBuilder()
+                .setClock(() -> Date.from(clock.instant()))
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        SecretKey key = keys.get(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Выдаёт токен доступа для сессии пользователя, подписанный активным ключом.
+     * @param userId Идентификатор пользователя.
+     * @param sessionId Идентификатор сессии.
+     * @param username Имя пользователя, записываемое в журнал аудита при выходе.
+     * @return компактное представление токена.
+     */
+    public String issue(Long userId, Long sessionId, String username) {
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setSubject(userId.toString())
+                .setId(sessionId.toString())
+                .claim(USERNAME_CLAIM, username)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(keys.get(activeKeyId), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Проверяет подпись, срок и отзыв токена.
+     * @param token Компактное представление токена.
+     * @return данные токена, если он действителен.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long sessionId = Long.valueOf(claims.getId());
+            Long userId = Long.valueOf(claims.getSubject());
+            if (revokedUntil.containsKey(sessionId) || isRevokedForUser(userId, claims.getIssuedAt())) {
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedToken(userId, sessionId, claims.get(USERNAME_CLAIM, String.class),
+                    claims.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Отзывает все токены сессии до истечения их срока.
+     * @param sessionId Идентификатор сессии.
+     */
+    public void revoke(Long sessionId) {
+        revokedUntil.put(sessionId, clock.instant().plus(ttl).getEpochSecond());
+    }
+
+    /**
+     * Отзывает все токены пользователя, выданные до этого момента, включая текущую секунду:
+     * {@code iat} хранится с точностью до секунды.
+     * @param userId Идентификатор пользователя.
+     */
+    public void revokeAll(Long userId) {
+        revokedBefore.put(userId, clock.instant().getEpochSecond());
+    }
+
+    private boolean isRevokedForUser(Long userId, Date issuedAt) {
+        Long revokedAt = revokedBefore.get(userId);
+        return revokedAt != null && (issuedAt == null || issuedAt.toInstant().getEpochSecond() <= revokedAt);
+    }
+
+    /**
+     * Удаляет из списка отзыва записи, чьи токены уже истекли сами.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeRevocations() {
+        long now = clock.instant().getEpochSecond();
+        revokedUntil.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(revokedAt -> revokedAt + ttl.getSeconds() <= now);
+    }
+
+    /** @return время жизни токена. */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** @return число записей в списке отзыва. */
+    public int getRevokedCount() {
+        return revokedUntil.size() + revokedBefore.size();
+    }
+}
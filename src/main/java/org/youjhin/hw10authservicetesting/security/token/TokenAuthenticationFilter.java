@@ -0,0 +1,66 @@
+package org.youjhin.hw10authservicetesting.security.token;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.youjhin.hw10authservicetesting.security.AuthenticatedUser;
+import org.youjhin.hw10authservicetesting.security.UserAuthorities;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, аутентифицирующий запрос по токену доступа из заголовка {@code Authorization: Bearer}
+ * или из cookie. Токен проверяется локально через {@link AccessTokenService}, без обращения к базе.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+    private final String cookieName;
+    private final UserAuthorities userAuthorities;
+
+    public TokenAuthenticationFilter(AccessTokenService accessTokenService, String cookieName, UserAuthorities userAuthorities) {
+        this.accessTokenService = accessTokenService;
+        this.cookieName = cookieName;
+        this.userAuthorities = userAuthorities;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            accessTokenService.verify(token).ifPresent(verified -> {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        new AuthenticatedUser(verified.userId(), verified.username()), verified.sessionId(),
+                        userAuthorities.forUser(verified.userId())));
+                SecurityContextHolder.setContext(context);
+            });
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package org.youjhin.hw10authservicetesting.security.token;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки режима аутентификации по подписанному токену доступа ({@code auth.token.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.token")
+public class TokenProperties {
+
+    /** Выдавать ли токены при входе и принимать ли их вместо проверки сессии. */
+    private boolean enabled = false;
+
+    /**
+     * Ключи подписи HMAC-SHA256 в Base64 (не короче 256 бит) по идентификатору ключа ({@code kid}).
+     * Для ротации новый ключ добавляется и становится активным, а старый остаётся, пока не истекут выданные им токены.
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /** Идентификатор ключа, которым подписываются новые токены. */
+    private String activeKeyId;
+
+    /** Время жизни токена. */
+    private Duration ttl = Duration.ofMinutes(15);
+
+    /** Имя cookie, в которой браузер хранит токен. */
+    private String cookieName = "ACCESS_TOKEN";
+}
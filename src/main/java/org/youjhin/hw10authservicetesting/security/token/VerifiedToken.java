@@ -0,0 +1,15 @@
+package org.youjhin.hw10authservicetesting.security.token;
+
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Проверенный токен доступа.
+ * @param userId Идентификатор пользователя.
+ * @param sessionId Идентификатор сессии, для которой выдан токен.
+ * @param username Имя пользователя или {@code null} для токенов, выданных без имени.
+ * @param expiresAt Момент истечения токена.
+ */
+public record VerifiedToken(Long userId, Long sessionId, @Nullable String username, Instant expiresAt) {
+}
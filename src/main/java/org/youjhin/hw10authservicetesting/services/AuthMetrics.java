@@ -0,0 +1,57 @@
+package org.youjhin.hw10authservicetesting.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Счётчики исходов входа ({@code auth.login}, тег {@code result}) и регистрации
+ * ({@code auth.register}, тег {@code result}).
+ */
+@Component
+public class AuthMetrics {
+
+    private final Counter loginSuccess;
+    private final Map<LoginResult.FailureReason, Counter> loginFailures = new EnumMap<>(LoginResult.FailureReason.class);
+    private final Counter registered;
+    private final Counter duplicateRegistrations;
+
+    /**
+     * @param meterRegistry Реестр метрик.
+     */
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.loginSuccess = loginCounter(meterRegistry, "success");
+        for (LoginResult.FailureReason reason : LoginResult.FailureReason.values()) {
+            loginFailures.put(reason, loginCounter(meterRegistry, reason.name().toLowerCase()));
+        }
+        this.registered = registerCounter(meterRegistry, "created");
+        this.duplicateRegistrations = registerCounter(meterRegistry, "duplicate");
+    }
+
+    /**
+     * Учитывает результат входа.
+     * @param result Результат входа.
+     */
+    public void recordLogin(LoginResult result) {
+        (result.isSuccess() ? loginSuccess : loginFailures.get(result.failureReason())).increment();
+    }
+
+    /**
+     * Учитывает результат регистрации.
+     * @param created true, если пользователь создан, false — если имя уже занято.
+     */
+    public void recordRegistration(boolean created) {
+        (created ? registered : duplicateRegistrations).increment();
+    }
+
+    private static Counter loginCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.login").description("Попытки входа по результату").tag("result", result).register(meterRegistry);
+    }
+
+    private static Counter registerCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.register").description("Попытки регистрации по результату").tag("result", result).register(meterRegistry);
+    }
+}
@@ -1,14 +1,26 @@
 package org.youjhin.hw10authservicetesting.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.youjhin.hw10authservicetesting.config.ReadYourWrites;
 import org.youjhin.hw10authservicetesting.models.SessionEntity;
 import org.youjhin.hw10authservicetesting.models.UserEntity;
-import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
 import org.youjhin.hw10authservicetesting.repositorys.UserRepository;
+import org.youjhin.hw10authservicetesting.security.PasswordHashingBusyException;
+import org.youjhin.hw10authservicetesting.security.VerifiedCredentialCache;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLog;
 import org.youjhin.hw10authservicetesting.services.interfaces.AuthService;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionWriteException;
+import org.youjhin.hw10authservicetesting.services.users.DuplicateUsernames;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -16,49 +28,115 @@ import java.util.Optional;
 /**
  * Класс сервиса для операций аутентификации.
  * Этот класс предоставляет функциональность для регистрации пользователей, входа в систему и выхода из неё.
- * Он взаимодействует с {@link UserRepository} и {@link SessionRepository} для управления данными пользователей
- * и данными сессий соответственно. Для шифрования паролей используется {@link PasswordEncoder}.
+ * Он взаимодействует с {@link UserRepository} и {@link SessionStore} для управления данными пользователей
+ * и данными сессий соответственно. Если включён режим токенов, при входе выдаётся токен доступа {@link AccessTokenService}.
+ * Для шифрования паролей используется {@link PasswordEncoder}. Попытки входа, выходы и регистрации
+ * записываются в журнал аудита {@link AuditLog} асинхронно. Повторный вход с недавно проверенными учётными данными
+ * подтверждается по {@link VerifiedCredentialCache} без BCrypt.
  *
  */
 @Service
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     private final UserRepository userRepository;
-    private final SessionRepository sessionRepository;
+    private final SessionStore sessionStore;
     private final PasswordEncoder passwordEncoder;
+    private final AccessTokenService accessTokenService;
+    private final AuthMetrics authMetrics;
+    private final UsernameFilter usernameFilter;
+    private final ReadYourWrites readYourWrites;
+    private final AuditLog auditLog;
+    private final VerifiedCredentialCache credentialCache;
 
     /**
      * Конструктор AuthServiceImpl с необходимыми репозиториями и кодировщиком.
      *
      * @param userRepository Репозиторий для доступа к данным пользователя.
-     * @param sessionRepository Репозиторий для управления данными сессий.
+     * @param sessionStore Хранилище сессий.
      * @param passwordEncoder Кодировщик для шифрования паролей.
+     * @param accessTokenService Сервис токенов доступа или {@code null}, если режим токенов выключен.
+     * @param authMetrics Счётчики исходов входа и регистрации.
+     * @param usernameFilter Фильтр Блума по именам пользователей.
+     * @param readYourWrites Чтение только что записанных пользователей с основного узла базы.
+     * @param auditLog Журнал аудита входов, выходов и регистраций.
+     * @param credentialCache Кэш недавно проверенных учётных данных.
      */
-    public AuthServiceImpl(UserRepository userRepository, SessionRepository sessionRepository, PasswordEncoder passwordEncoder) {
+    public AuthServiceImpl(UserRepository userRepository, SessionStore sessionStore, PasswordEncoder passwordEncoder,
+                           @Nullable AccessTokenService accessTokenService, AuthMetrics authMetrics,
+                           UsernameFilter usernameFilter, ReadYourWrites readYourWrites,
+                           AuditLog auditLog, VerifiedCredentialCache credentialCache) {
         this.userRepository = userRepository;
-        this.sessionRepository = sessionRepository;
+        this.sessionStore = sessionStore;
         this.passwordEncoder = passwordEncoder;
+        this.accessTokenService = accessTokenService;
+        this.authMetrics = authMetrics;
+        this.usernameFilter = usernameFilter;
+        this.readYourWrites = readYourWrites;
+        this.auditLog = auditLog;
+        this.credentialCache = credentialCache;
     }
 
     /**
      * Регистрирует нового пользователя в системе.
-     * Проверяет, существует ли пользователь с таким же именем. Если нет, шифрует пароль и сохраняет пользователя.
+     * Шифрует пароль и сразу сохраняет пользователя: занятое имя распознаётся по нарушению ограничения
+     * уникальности, поэтому для нового имени нужен один запрос к базе. Предварительный поиск выполняется,
+     * только если фильтр имён допускает, что имя занято, — чтобы не тратить BCrypt на заведомый отказ.
      * @param user Сущность пользователя, которого нужно зарегистрировать.
      * @return true, если регистрация успешна, иначе false.
      */
     public boolean register(UserEntity user) {
 
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
+        if (usernameFilter.mightExist(user.getUsername()) && !isAbsentInDatabase(user.getUsername())) {
             // Пользователь с таким именем уже существует
+            authMetrics.recordRegistration(false);
+            auditLog.recordRegistration(user.getUsername(), null, false);
             return false;
         }
         // Шифрование пароля перед сохранением
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateUsernames.isDuplicateUsername(e)) {
+                throw e;
+            }
+            // Имя заняли параллельной регистрацией или на другом узле
+            authMetrics.recordRegistration(false);
+            auditLog.recordRegistration(user.getUsername(), null, false);
+            return false;
+        }
+        usernameFilter.add(user.getUsername());
+        readYourWrites.recordWrite(user.getUsername());
+        authMetrics.recordRegistration(true);
+        auditLog.recordRegistration(user.getUsername(), user.getId(), true);
         // После регистрации можно создать сессию, если это требуется
         return true;
     }
 
+    /**
+     * Проверяет, свободно ли имя пользователя.
+     * Если фильтр {@link UsernameFilter} отвечает, что имени точно нет, запрос к базе не выполняется.
+     * @param username Имя пользователя.
+     * @return true, если имя свободно.
+     */
+    public boolean isUsernameAvailable(String username) {
+        return !usernameFilter.mightExist(username) || isAbsentInDatabase(username);
+    }
+
+    /**
+     * Проверяет имя в базе после ответа фильтра «возможно есть».
+     * @return true, если имя свободно (фильтр ошибся).
+     */
+    private boolean isAbsentInDatabase(String username) {
+        boolean exists = findByUsername(username).isPresent();
+        if (!exists) {
+            usernameFilter.recordFalsePositive();
+        }
+        return !exists;
+    }
+
     /**
      * Осуществляет вход пользователя в систему.
      * Проверяет наличие пользователя с таким именем и соответствие пароля. В случае успеха создает сессию.
@@ -67,26 +145,157 @@ public class AuthServiceImpl implements AuthService {
      * @return true, если вход успешен, иначе false.
      */
     public boolean login(String username, String password) {
-        Optional<UserEntity> user = userRepository.findByUsername(username);
-        if (user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())) {
-            SessionEntity sessionEntity = new SessionEntity();
-            sessionEntity.setUserId(user.get().getId());
-            sessionEntity.setCreatedAt(LocalDateTime.now());
-            sessionRepository.save(sessionEntity);
+        return authenticate(username, password).isSuccess();
+    }
+
+    /**
+     * Осуществляет вход пользователя в систему с одним обращением к {@link UserRepository}.
+     * В случае успеха создает сессию и возвращает идентификаторы пользователя и сессии
+     * (и токен доступа в режиме токенов), иначе возвращает причину отказа.
+     * Если хэш пароля устарел (другой алгоритм или меньшая стоимость), он пересчитывается с текущими настройками.
+     * @param username Имя пользователя.
+     * @param password Пароль пользователя.
+     * @return результат входа {@link LoginResult}.
+     */
+    public LoginResult authenticate(String username, String password) {
+        LoginResult result = verifyAndCreateSession(username, password);
+        authMetrics.recordLogin(result);
+        auditLog.recordLogin(username, result);
+        return result;
+    }
+
+    private LoginResult verifyAndCreateSession(String username, String password) {
+        Optional<UserEntity> user = findByUsername(username);
+        if (user.isEmpty()) {
+            return LoginResult.failure(LoginResult.FailureReason.USER_NOT_FOUND);
+        }
+        if (!verifyPassword(user.get(), password)) {
+            return LoginResult.failure(LoginResult.FailureReason.BAD_CREDENTIALS);
+        }
+        SessionEntity sessionEntity = new SessionEntity();
+        sessionEntity.setUserId(user.get().getId());
+        sessionEntity.setCreatedAt(LocalDateTime.now());
+        try {
+            sessionStore.save(sessionEntity);
+        } catch (SessionWriteException e) {
+            // Групповой коммит не записал пакет: вход отклоняется как обычная неудача, а не ошибкой сервера
+            log.warn("Session for user {} was not saved", user.get().getId(), e);
+            return LoginResult.failure(LoginResult.FailureReason.SESSION_NOT_SAVED);
+        }
+        String accessToken = accessTokenService != null ? accessTokenService.issue(user.get().getId(), sessionEntity.getId(), user.get().getUsername()) : null;
+        return LoginResult.success(user.get().getId(), sessionEntity.getId(), accessToken);
+    }
+
+    /**
+     * Проверяет пароль: сначала по кэшу недавно проверенных учётных данных, затем через BCrypt.
+     * После успешной проверки BCrypt устаревший хэш пересчитывается, а учётные данные запоминаются
+     * вместе с актуальным хэшем.
+     */
+    private boolean verifyPassword(UserEntity user, String password) {
+        if (credentialCache.isVerified(user.getUsername(), password, user.getPassword())) {
             return true;
         }
-        return false;
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            return false;
+        }
+        String currentHash = rehashIfStale(user, password);
+        if (currentHash != null) {
+            credentialCache.recordVerified(user.getUsername(), password, currentHash);
+        }
+        return true;
+    }
+
+    /**
+     * Ищет пользователя по имени. Только что зарегистрированный или изменённый пользователь
+     * ищется на основном узле базы, потому что реплики могут ещё не получить запись.
+     */
+    private Optional<UserEntity> findByUsername(String username) {
+        return readYourWrites.read(username, () -> userRepository.findByUsername(username));
     }
 
     /**
      * Выполняет выход пользователя из системы.
      * Удаляет сессию пользователя и очищает контекст безопасности.
+     * В режиме токенов отзываются все ранее выданные токены пользователя.
      * @param userId Идентификатор пользователя, который должен быть выведен из системы.
      */
     @Transactional
     public void logout(Long userId) {
-        sessionRepository.deleteByUserId(userId);
+        if (accessTokenService != null) {
+            accessTokenService.revokeAll(userId);
+        }
+        sessionStore.deleteByUserId(userId);
+        auditLog.recordLogout(null, userId, null);
         SecurityContextHolder.clearContext();
     }
-}
 
+    /**
+     * Завершает одну конкретную сессию пользователя.
+     * В отличие от {@link #logout(Long)}, не затрагивает другие сессии того же пользователя.
+     * В режиме токенов токен этой сессии отзывается.
+     * @param sessionId Идентификатор завершаемой сессии.
+     * @param userId Идентификатор владельца сессии или {@code null}, если запрос не аутентифицирован.
+     * @param username Имя владельца сессии для журнала аудита или {@code null}, если оно неизвестно.
+     */
+    @Transactional
+    public void logoutSession(Long sessionId, Long userId, String username) {
+        if (accessTokenService != null) {
+            accessTokenService.revoke(sessionId);
+        }
+        sessionStore.delete(sessionId);
+        auditLog.recordLogout(username, userId, sessionId);
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Удаляет пользователя вместе с его сессиями и токенами.
+     * Пользователь удаляется из кэша поиска по имени ({@link UserRepository#delete}) и из кэша проверенных
+     * учётных данных, поэтому следующий вход с его именем и паролем отклоняется сразу.
+     * @param username Имя пользователя.
+     * @return true, если пользователь был найден и удалён.
+     */
+    @Transactional
+    public boolean deleteUser(String username) {
+        Optional<UserEntity> user = findByUsername(username);
+        if (user.isEmpty()) {
+            return false;
+        }
+        Long userId = user.get().getId();
+        if (accessTokenService != null) {
+            accessTokenService.revokeAll(userId);
+        }
+        sessionStore.deleteByUserId(userId);
+        userRepository.delete(user.get());
+        credentialCache.invalidate(username);
+        return true;
+    }
+
+    /**
+     * Пересчитывает хэш пароля, если он создан с устаревшими параметрами.
+     * Пароль уже проверен, поэтому открытый пароль известен. Сохраняется копия пользователя с новым хэшем:
+     * найденный экземпляр может лежать в кэше пользователей, и менять его до записи в базу нельзя
+     * (сохранение удаляет пользователя из кэша, и следующий вход прочитает новый хэш из базы).
+     * Если пул хэширования занят, перехэширование откладывается до следующего входа, а вход не отклоняется.
+     * @param user Пользователь, прошедший проверку пароля.
+     * @param password Пароль пользователя в открытом виде.
+     * @return актуальный хэш пароля (прежний или пересчитанный) или {@code null}, если перехэширование отложено.
+     */
+    @Nullable
+    private String rehashIfStale(UserEntity user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return user.getPassword();
+        }
+        try {
+            UserEntity rehashed = new UserEntity();
+            rehashed.setId(user.getId());
+            rehashed.setUsername(user.getUsername());
+            rehashed.setPassword(passwordEncoder.encode(password));
+            userRepository.save(rehashed);
+            readYourWrites.recordWrite(user.getUsername());
+            return rehashed.getPassword();
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Password hashing pool is busy, rehash for {} postponed to the next login", user.getUsername(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.youjhin.hw10authservicetesting.services;
+
+/**
+ * Результат попытки входа в систему.
+ * При успехе содержит идентификатор пользователя, идентификатор созданной сессии и, если включён режим токенов,
+ * подписанный токен доступа; при неудаче — причину отказа.
+ * @param userId Идентификатор пользователя или {@code null}, если вход не выполнен.
+ * @param sessionId Идентификатор созданной сессии или {@code null}, если вход не выполнен.
+ * @param accessToken Токен доступа или {@code null}, если режим токенов выключен или вход не выполнен.
+ * @param failureReason Причина отказа или {@code null} при успешном входе.
+ */
+public record LoginResult(Long userId, Long sessionId, String accessToken, FailureReason failureReason) {
+
+    /**
+     * Причина неудачного входа.
+     */
+    public enum FailureReason {
+        /** Пользователь с таким именем не найден. */
+        USER_NOT_FOUND,
+        /** Пароль не совпадает. */
+        BAD_CREDENTIALS,
+        /** Учётные данные верны, но сессию не удалось сохранить. */
+        SESSION_NOT_SAVED
+    }
+
+    public static LoginResult success(Long userId, Long sessionId, String accessToken) {
+        return new LoginResult(userId, sessionId, accessToken, null);
+    }
+
+    public static LoginResult failure(FailureReason failureReason) {
+        return new LoginResult(null, null, null, failureReason);
+    }
+
+    public boolean isSuccess() {
+        return failureReason == null;
+    }
+}
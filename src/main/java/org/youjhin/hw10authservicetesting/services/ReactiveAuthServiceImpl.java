@@ -0,0 +1,179 @@
+package org.youjhin.hw10authservicetesting.services;
+
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.security.VerifiedCredentialCache;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLog;
+import org.youjhin.hw10authservicetesting.services.interfaces.ReactiveAuthService;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionIdGenerator;
+import org.youjhin.hw10authservicetesting.services.users.DuplicateUsernames;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неблокирующая реализация регистрации, входа и выхода.
+ * Данные читаются и пишутся через R2DBC ({@link DatabaseClient}) в те же таблицы, что использует JPA,
+ * а хэширование и проверка паролей выполняются на ограниченном планировщике, чтобы BCrypt
+ * не занимал потоки цикла событий. Поиск пользователя использует общий кэш пользователей.
+ * Вход выдаёт токен доступа {@link AccessTokenService}, выход отзывает его. Недавно проверенные учётные данные
+ * подтверждаются по {@link VerifiedCredentialCache} без обращения к планировщику хэширования.
+ */
+public class ReactiveAuthServiceImpl implements ReactiveAuthService {
+
+    private final DatabaseClient databaseClient;
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler hashingScheduler;
+    private final SessionIdGenerator sessionIdGenerator;
+    private final AccessTokenService accessTokenService;
+    private final Cache userCache;
+    private final UsernameFilter usernameFilter;
+    private final AuditLog auditLog;
+    private final VerifiedCredentialCache credentialCache;
+
+    /**
+     * @param databaseClient Реактивный клиент базы данных.
+     * @param passwordEncoder Кодировщик паролей.
+     * @param hashingScheduler Ограниченный планировщик для операций с паролями.
+     * @param sessionIdGenerator Генератор идентификаторов сессий.
+     * @param accessTokenService Сервис токенов доступа.
+     * @param userCache Кэш пользователей по имени.
+     * @param usernameFilter Фильтр Блума по именам пользователей.
+     * @param auditLog Журнал аудита входов, выходов и регистраций.
+     * @param credentialCache Кэш недавно проверенных учётных данных.
+     */
+    public ReactiveAuthServiceImpl(DatabaseClient databaseClient, PasswordEncoder passwordEncoder, Scheduler hashingScheduler,
+                                   SessionIdGenerator sessionIdGenerator, AccessTokenService accessTokenService, Cache userCache,
+                                   UsernameFilter usernameFilter, AuditLog auditLog,
+                                   VerifiedCredentialCache credentialCache) {
+        this.databaseClient = databaseClient;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingScheduler = hashingScheduler;
+        this.sessionIdGenerator = sessionIdGenerator;
+        this.accessTokenService = accessTokenService;
+        this.userCache = userCache;
+        this.usernameFilter = usernameFilter;
+        this.auditLog = auditLog;
+        this.credentialCache = credentialCache;
+    }
+
+    /**
+     * Регистрирует нового пользователя, если имя свободно.
+     * @param user Сущность пользователя с паролем в открытом виде.
+     * @return true, если регистрация успешна, иначе false.
+     */
+    @Override
+    public Mono<Boolean> register(UserEntity user) {
+        Mono<UserEntity> existing = usernameFilter.mightExist(user.getUsername())
+                ? findByUsername(user.getUsername())
+                : Mono.empty();
+        return existing
+                .map(found -> false)
+                .switchIfEmpty(Mono.defer(() -> encode(user.getPassword())
+                        .flatMap(hash -> databaseClient.sql("insert into user_entity (username, password) values (:username, :password)")
+                                .bind("username", user.getUsername())
+                                .bind("password", hash)
+                                .fetch()
+                                .rowsUpdated())
+                        .doOnSuccess(rows -> {
+                            userCache.evict(user.getUsername());
+                            usernameFilter.add(user.getUsername());
+                        })
+                        .thenReturn(true)))
+                .onErrorResume(DataIntegrityViolationException.class,
+                        e -> DuplicateUsernames.isDuplicateUsername(e) ? Mono.just(false) : Mono.error(e))
+                .doOnNext(created -> auditLog.recordRegistration(user.getUsername(), null, created));
+    }
+
+    /**
+     * Проверяет учётные данные и при успехе создаёт сессию и выдаёт токен доступа.
+     * @param username Имя пользователя.
+     * @param password Пароль пользователя.
+     * @return результат входа {@link LoginResult}.
+     */
+    @Override
+    public Mono<LoginResult> authenticate(String username, String password) {
+        return findByUsername(username)
+                .flatMap(user -> matches(username, password, user.getPassword())
+                        .flatMap(matches -> matches
+                                ? createSession(user)
+                                : Mono.just(LoginResult.failure(LoginResult.FailureReason.BAD_CREDENTIALS))))
+                .defaultIfEmpty(LoginResult.failure(LoginResult.FailureReason.USER_NOT_FOUND))
+                .doOnNext(result -> auditLog.recordLogin(username, result));
+    }
+
+    /**
+     * Завершает сессию и отзывает её токен.
+     * @param sessionId Идентификатор сессии.
+     * @param userId Идентификатор владельца сессии из токена.
+     * @param username Имя владельца сессии из токена или {@code null}.
+     * @return сигнал завершения.
+     */
+    @Override
+    public Mono<Void> logoutSession(Long sessionId, Long userId, String username) {
+        return Mono.fromRunnable(() -> accessTokenService.revoke(sessionId))
+                .then(databaseClient.sql("delete from session_entity where id = :id")
+                        .bind("id", sessionId)
+                        .fetch()
+                        .rowsUpdated())
+                .doOnSuccess(rows -> auditLog.recordLogout(username, userId, sessionId))
+                .then();
+    }
+
+    private Mono<UserEntity> findByUsername(String username) {
+        Cache.ValueWrapper cached = userCache.get(username);
+        if (cached != null) {
+            return Mono.justOrEmpty((UserEntity) cached.get());
+        }
+        return databaseClient.sql("select id, username, password from user_entity where username = :username")
+                .bind("username", username)
+                .map((row, metadata) -> {
+                    UserEntity user = new UserEntity();
+                    user.setId(row.get("id", Long.class));
+                    user.setUsername(row.get("username", String.class));
+                    user.setPassword(row.get("password", String.class));
+                    return user;
+                })
+                .one()
+                .doOnNext(user -> userCache.put(username, user));
+    }
+
+    private Mono<LoginResult> createSession(UserEntity user) {
+        Long userId = user.getId();
+        long sessionId = sessionIdGenerator.nextId();
+        return databaseClient.sql("insert into session_entity (id, user_id, created_at) values (:id, :userId, :createdAt)")
+                .bind("id", sessionId)
+                .bind("userId", userId)
+                .bind("createdAt", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(LoginResult.success(userId, sessionId, accessTokenService.issue(userId, sessionId, user.getUsername())));
+    }
+
+    private Mono<String> encode(String rawPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(rawPassword)).subscribeOn(hashingScheduler);
+    }
+
+    /**
+     * Проверяет пароль по кэшу проверенных учётных данных, а при промахе — через BCrypt на планировщике хэширования.
+     * Учётные данные с устаревшим хэшем не кэшируются, чтобы вход через JPA успел пересчитать хэш.
+     */
+    private Mono<Boolean> matches(String username, String rawPassword, String encodedPassword) {
+        if (credentialCache.isVerified(username, rawPassword, encodedPassword)) {
+            return Mono.just(true);
+        }
+        return Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword))
+                .subscribeOn(hashingScheduler)
+                .doOnNext(matches -> {
+                    if (matches && !passwordEncoder.upgradeEncoding(encodedPassword)) {
+                        credentialCache.recordVerified(username, rawPassword, encodedPassword);
+                    }
+                });
+    }
+}
@@ -0,0 +1,23 @@
+package org.youjhin.hw10authservicetesting.services.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки административных списков пользователей и сессий ({@code auth.admin-listing.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.admin-listing")
+public class AdminListingProperties {
+
+    /** Размер страницы, если он не указан в запросе. */
+    private int defaultPageSize = 100;
+
+    /** Максимальный размер страницы. */
+    private int maxPageSize = 1_000;
+
+    /** Размер порции строк, которую драйвер получает от базы при потоковой выгрузке. */
+    private int exportFetchSize = 1_000;
+}
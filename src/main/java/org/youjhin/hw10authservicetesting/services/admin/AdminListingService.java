@@ -0,0 +1,166 @@
+package org.youjhin.hw10authservicetesting.services.admin;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.youjhin.hw10authservicetesting.models.SessionSummary;
+import org.youjhin.hw10authservicetesting.models.UserSummary;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+import org.youjhin.hw10authservicetesting.repositorys.UserRepository;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionStoreProperties;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Административные списки пользователей и действующих сессий.
+ * Страницы строятся keyset-пагинацией: следующая страница начинается после последнего ключа предыдущей
+ * (пользователи — по {@code id}, сессии — по {@code (createdAt, id)}), поэтому каждая страница — короткий
+ * просмотр индекса, и её время не зависит от глубины. Выгрузка читает таблицу одним запросом
+ * через однонаправленный курсор с фиксированным размером порции ({@code useCursorFetch=true} для MySQL),
+ * так что в памяти одновременно находится не больше одной порции строк.
+ * Списки сессий читаются из базы: в режиме хранения сессий в памяти без сохранения в базу они пусты.
+ */
+@Service
+public class AdminListingService {
+
+    private static final char CURSOR_SEPARATOR = '_';
+
+    private final UserRepository userRepository;
+    private final SessionRepository sessionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionStoreProperties sessionStoreProperties;
+    private final AdminListingProperties properties;
+
+    public AdminListingService(UserRepository userRepository, SessionRepository sessionRepository, JdbcTemplate jdbcTemplate,
+                               SessionStoreProperties sessionStoreProperties, AdminListingProperties properties) {
+        this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionStoreProperties = sessionStoreProperties;
+        this.properties = properties;
+    }
+
+    /**
+     * Возвращает страницу пользователей в порядке идентификаторов.
+     * @param cursor Курсор из предыдущей страницы или {@code null} для первой страницы.
+     * @param size Размер страницы или {@code null} для размера по умолчанию.
+     * @return страница пользователей.
+     * @throws IllegalArgumentException если курсор некорректен.
+     */
+    public KeysetPage<UserSummary> users(@Nullable String cursor, @Nullable Integer size) {
+        long afterId = cursor == null ? 0 : parseId(cursor);
+        int pageSize = pageSize(size);
+        List<UserSummary> users = userRepository.findSummariesAfter(afterId, Limit.of(pageSize));
+        return page(users, pageSize, user -> Long.toString(user.id()));
+    }
+
+    /**
+     * Возвращает страницу действующих сессий всех пользователей или одного пользователя в порядке создания.
+     * @param userId Идентификатор пользователя или {@code null} для всех пользователей.
+     * @param cursor Курсор из предыдущей страницы или {@code null} для первой страницы.
+     * @param size Размер страницы или {@code null} для размера по умолчанию.
+     * @return страница сессий.
+     * @throws IllegalArgumentException если курсор некорректен.
+     */
+    public KeysetPage<SessionSummary> sessions(@Nullable Long userId, @Nullable String cursor, @Nullable Integer size) {
+        LocalDateTime afterCreatedAt = oldestValid();
+        // Сессия, созданная ровно в момент отсечки, уже истекла, поэтому с этим временем не берётся ни одна
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null) {
+            int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            LocalDateTime createdAt = parseTime(separator < 0 ? cursor : cursor.substring(0, separator));
+            if (createdAt.isAfter(afterCreatedAt)) {
+                afterCreatedAt = createdAt;
+                afterId = parseId(cursor.substring(separator + 1));
+            }
+        }
+        int pageSize = pageSize(size);
+        List<SessionSummary> sessions = userId == null
+                ? sessionRepository.findSummariesAfter(afterCreatedAt, afterId, Limit.of(pageSize))
+                : sessionRepository.findSummariesByUserIdAfter(userId, afterCreatedAt, afterId, Limit.of(pageSize));
+        return page(sessions, pageSize, session -> session.createdAt().toString() + CURSOR_SEPARATOR + session.id());
+    }
+
+    /**
+     * Передаёт всех пользователей в порядке идентификаторов, читая таблицу потоком.
+     * @param consumer Получатель пользователей.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserSummary> consumer) {
+        stream("select id, username from user_entity order by id", List.of(),
+                resultSet -> consumer.accept(new UserSummary(resultSet.getLong(1), resultSet.getString(2))));
+    }
+
+    /**
+     * Передаёт действующие сессии всех пользователей или одного пользователя в порядке создания,
+     * читая таблицу потоком.
+     * @param userId Идентификатор пользователя или {@code null} для всех пользователей.
+     * @param consumer Получатель сессий.
+     */
+    @Transactional(readOnly = true)
+    public void exportSessions(@Nullable Long userId, Consumer<SessionSummary> consumer) {
+        Timestamp oldestValid = Timestamp.valueOf(oldestValid());
+        String sql = "select id, user_id, created_at from session_entity where created_at > ?"
+                + (userId == null ? "" : " and user_id = ?")
+                + " order by created_at, id";
+        stream(sql, userId == null ? List.of(oldestValid) : List.of(oldestValid, userId),
+                resultSet -> consumer.accept(new SessionSummary(resultSet.getLong(1), resultSet.getLong(2),
+                        resultSet.getTimestamp(3).toLocalDateTime())));
+    }
+
+    private void stream(String sql, List<Object> parameters, RowCallbackHandler rowHandler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(properties.getExportFetchSize());
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, rowHandler);
+    }
+
+    private LocalDateTime oldestValid() {
+        return LocalDateTime.now().minus(sessionStoreProperties.getTtl());
+    }
+
+    private int pageSize(@Nullable Integer size) {
+        if (size == null) {
+            return properties.getDefaultPageSize();
+        }
+        return Math.clamp(size, 1, properties.getMaxPageSize());
+    }
+
+    /**
+     * Курсор следующей страницы строится по последнему элементу; неполная страница — последняя.
+     */
+    private static <T> KeysetPage<T> page(List<T> items, int pageSize, Function<T, String> cursor) {
+        String next = items.size() < pageSize ? null : cursor.apply(items.get(items.size() - 1));
+        return new KeysetPage<>(items, next);
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+}
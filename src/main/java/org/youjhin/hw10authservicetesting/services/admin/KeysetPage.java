@@ -0,0 +1,11 @@
+package org.youjhin.hw10authservicetesting.services.admin;
+
+import java.util.List;
+
+/**
+ * Страница списка при keyset-пагинации.
+ * @param items Элементы страницы.
+ * @param next Курсор следующей страницы или {@code null}, если страница последняя.
+ */
+public record KeysetPage<T>(List<T> items, String next) {
+}
@@ -0,0 +1,37 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+/**
+ * Событие журнала аудита: попытка входа, выход или попытка регистрации.
+ * @param timestamp Время события, миллисекунды от эпохи.
+ * @param type Тип события.
+ * @param outcome Исход.
+ * @param userId Идентификатор пользователя или 0, если он неизвестен.
+ * @param sessionId Идентификатор сессии или 0, если сессии нет.
+ * @param username Имя пользователя или {@code null}, если оно неизвестно (например, при выходе).
+ */
+public record AuditEvent(long timestamp, Type type, Outcome outcome, long userId, long sessionId, String username) {
+
+    /**
+     * Тип события.
+     */
+    public enum Type {
+        LOGIN,
+        LOGOUT,
+        REGISTER
+    }
+
+    /**
+     * Исход события.
+     */
+    public enum Outcome {
+        SUCCESS,
+        /** Вход: пользователь не найден. */
+        USER_NOT_FOUND,
+        /** Вход: пароль не совпадает. */
+        BAD_CREDENTIALS,
+        /** Регистрация: имя уже занято. */
+        DUPLICATE,
+        /** Вход: учётные данные верны, но сессию не удалось сохранить. */
+        SESSION_NOT_SAVED
+    }
+}
@@ -0,0 +1,195 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.youjhin.hw10authservicetesting.services.LoginResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Журнал аудита входов, выходов и регистраций.
+ * Потоки запросов только кладут событие в {@link AuditRingBuffer} без блокировок и обращений к диску;
+ * единственный фоновый поток переносит события в {@link AuditSegmentWriter} и раз в {@code flushInterval}
+ * сбрасывает их на диск. Если буфер переполнен, событие теряется и учитывается в {@link #getDropped()}:
+ * аудит не должен замедлять вход. Поиск по журналу — {@link AuditLogScanner}.
+ */
+@Service
+public class AuditLog implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AuditLogProperties properties;
+    private final Clock clock;
+    private final AuditRingBuffer buffer;
+    private final AuditSegmentWriter writer;
+    private final Thread writerThread;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * @param properties Настройки журнала аудита.
+     */
+    @Autowired
+    public AuditLog(AuditLogProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    AuditLog(AuditLogProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        if (!properties.isEnabled()) {
+            this.buffer = null;
+            this.writer = null;
+            this.writerThread = null;
+            return;
+        }
+        this.buffer = new AuditRingBuffer(properties.getBufferCapacity());
+        try {
+            this.writer = new AuditSegmentWriter(properties.getDirectory(), (int) properties.getSegmentSize().toBytes(),
+                    properties.getMaxSegments(), properties.getRetention(), clock);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit log in " + properties.getDirectory(), e);
+        }
+        this.writerThread = new Thread(this::writeLoop, "audit-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Записывает попытку входа.
+     * @param username Имя пользователя.
+     * @param result Результат входа.
+     */
+    public void recordLogin(String username, LoginResult result) {
+        AuditEvent.Outcome outcome = result.isSuccess() ? AuditEvent.Outcome.SUCCESS : switch (result.failureReason()) {
+            case USER_NOT_FOUND -> AuditEvent.Outcome.USER_NOT_FOUND;
+            case BAD_CREDENTIALS -> AuditEvent.Outcome.BAD_CREDENTIALS;
+            case SESSION_NOT_SAVED -> AuditEvent.Outcome.SESSION_NOT_SAVED;
+        };
+        record(AuditEvent.Type.LOGIN, outcome, result.userId(), result.sessionId(), username);
+    }
+
+    /**
+     * Записывает попытку регистрации.
+     * @param username Имя пользователя.
+     * @param userId Идентификатор созданного пользователя или {@code null}, если имя занято.
+     * @param created true, если пользователь создан.
+     */
+    public void recordRegistration(String username, Long userId, boolean created) {
+        record(AuditEvent.Type.REGISTER, created ? AuditEvent.Outcome.SUCCESS : AuditEvent.Outcome.DUPLICATE,
+                userId, null, username);
+    }
+
+    /**
+     * Записывает выход: всех сессий пользователя или одной сессии.
+     * @param username Имя пользователя или {@code null}, если оно неизвестно.
+     * @param userId Идентификатор пользователя или {@code null}.
+     * @param sessionId Идентификатор сессии или {@code null}.
+     */
+    public void recordLogout(String username, Long userId, Long sessionId) {
+        record(AuditEvent.Type.LOGOUT, AuditEvent.Outcome.SUCCESS, userId, sessionId, username);
+    }
+
+    private void record(AuditEvent.Type type, AuditEvent.Outcome outcome, Long userId, Long sessionId, String username) {
+        if (buffer == null) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(clock.millis(), type, outcome,
+                userId == null ? 0 : userId, sessionId == null ? 0 : sessionId, username);
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        long lastFlush = System.nanoTime();
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(this::write, DRAIN_BATCH);
+            long now = System.nanoTime();
+            if (now - lastFlush >= flushIntervalNanos) {
+                writer.force();
+                lastFlush = now;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        writer.close();
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            writer.append(event);
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.error("Failed to write audit event {}", event, e);
+        }
+    }
+
+    /**
+     * @return true, если журнал ведётся.
+     */
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    /**
+     * @return поиск по каталогу журнала.
+     */
+    public AuditLogScanner scanner() {
+        return new AuditLogScanner(properties.getDirectory());
+    }
+
+    /**
+     * @return число событий, потерянных из-за переполненного буфера.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return число событий, записанных в журнал.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * @return число событий, которые не удалось записать.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return число событий, ожидающих записи.
+     */
+    public int getPending() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * Дописывает накопленные события и закрывает журнал.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writerThread != null) {
+            running = false;
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
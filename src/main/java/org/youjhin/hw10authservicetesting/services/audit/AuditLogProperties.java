@@ -0,0 +1,39 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки журнала аудита входов, выходов и регистраций ({@code auth.audit.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.audit")
+public class AuditLogProperties {
+
+    /** Вести ли журнал аудита. */
+    private boolean enabled = false;
+
+    /** Каталог сегментов журнала. */
+    private Path directory = Path.of("audit");
+
+    /** Размер одного сегмента. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** Максимальное число хранимых сегментов. */
+    private int maxSegments = 64;
+
+    /** Максимальный возраст сегмента. */
+    private Duration retention = Duration.ofDays(30);
+
+    /** Ёмкость буфера событий между потоками запросов и потоком записи; при переполнении события теряются. */
+    private int bufferCapacity = 65_536;
+
+    /** Период сброса записанных событий на диск. */
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
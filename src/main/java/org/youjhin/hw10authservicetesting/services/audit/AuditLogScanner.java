@@ -0,0 +1,115 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Predicate;
+
+import static org.youjhin.hw10authservicetesting.services.audit.AuditSegmentWriter.END_OFFSET;
+import static org.youjhin.hw10authservicetesting.services.audit.AuditSegmentWriter.FIRST_TIMESTAMP_OFFSET;
+import static org.youjhin.hw10authservicetesting.services.audit.AuditSegmentWriter.HEADER_SIZE;
+import static org.youjhin.hw10authservicetesting.services.audit.AuditSegmentWriter.LAST_TIMESTAMP_OFFSET;
+import static org.youjhin.hw10authservicetesting.services.audit.AuditSegmentWriter.MAGIC;
+import static org.youjhin.hw10authservicetesting.services.audit.AuditSegmentWriter.RECORD_HEADER_SIZE;
+
+/**
+ * Поиск событий в журнале аудита по имени пользователя и интервалу времени.
+ * Сегменты отображаются в память только для чтения и просматриваются по одному; сегменты вне интервала
+ * пропускаются по заголовку. Имя сравнивается побайтно прямо в отображённом файле, поэтому объекты
+ * создаются только для найденных событий и размер журнала не ограничен размером кучи.
+ */
+public class AuditLogScanner {
+
+    private final Path directory;
+
+    /**
+     * @param directory Каталог журнала.
+     */
+    public AuditLogScanner(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Передаёт обработчику события, подходящие под условия, в порядке записи.
+     * @param username Имя пользователя или {@code null} для событий всех пользователей.
+     * @param from Начало интервала включительно или {@code null}.
+     * @param to Конец интервала не включительно или {@code null}.
+     * @param handler Обработчик; если он вернул false, поиск прекращается.
+     * @return число просмотренных событий.
+     * @throws IOException если сегмент не удалось прочитать.
+     */
+    public long scan(String username, Instant from, Instant to, Predicate<AuditEvent> handler) throws IOException {
+        byte[] name = username == null ? null : username.getBytes(StandardCharsets.UTF_8);
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        long scanned = 0;
+        for (Path path : AuditSegmentWriter.segments(directory)) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (NoSuchFileException e) {
+                continue; // сегмент удалён по сроку хранения во время поиска
+            }
+            if (segment.capacity() < HEADER_SIZE || segment.getInt(0) != MAGIC) {
+                continue;
+            }
+            int end = Math.min(segment.getInt(END_OFFSET), segment.capacity());
+            if (end <= HEADER_SIZE
+                    || segment.getLong(LAST_TIMESTAMP_OFFSET) < fromMillis
+                    || segment.getLong(FIRST_TIMESTAMP_OFFSET) >= toMillis) {
+                continue;
+            }
+            int position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= end) {
+                int length = segment.getInt(position);
+                if (length < RECORD_HEADER_SIZE || position + length > end) {
+                    break;
+                }
+                scanned++;
+                long timestamp = segment.getLong(position + 4);
+                if (timestamp >= fromMillis && timestamp < toMillis
+                        && (name == null || nameEquals(segment, position, length, name))
+                        && !handler.test(decode(segment, position, length))) {
+                    return scanned;
+                }
+                position += length;
+            }
+        }
+        return scanned;
+    }
+
+    private static boolean nameEquals(MappedByteBuffer segment, int position, int length, byte[] name) {
+        if (length - RECORD_HEADER_SIZE != name.length) {
+            return false;
+        }
+        int offset = position + RECORD_HEADER_SIZE;
+        for (int i = 0; i < name.length; i++) {
+            if (segment.get(offset + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static AuditEvent decode(MappedByteBuffer segment, int position, int length) {
+        int nameLength = length - RECORD_HEADER_SIZE;
+        String username = null;
+        if (nameLength > 0) {
+            byte[] name = new byte[nameLength];
+            segment.get(position + RECORD_HEADER_SIZE, name);
+            username = new String(name, StandardCharsets.UTF_8);
+        }
+        return new AuditEvent(
+                segment.getLong(position + 4),
+                AuditEvent.Type.values()[segment.get(position + 12)],
+                AuditEvent.Outcome.values()[segment.get(position + 13)],
+                segment.getLong(position + 14),
+                segment.getLong(position + 22),
+                username);
+    }
+}
@@ -0,0 +1,66 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Утилита командной строки для поиска в журнале аудита без запуска приложения.
+ * <pre>
+ * java -cp target/classes org.youjhin.hw10authservicetesting.services.audit.AuditLogTool \
+ *     --dir audit --user alice --from 2024-03-01T00:00:00Z --to 2024-03-02T00:00:00Z --limit 100
+ * </pre>
+ * Из собранного jar: {@code java -cp app.jar -Dloader.main=<этот класс> org.springframework.boot.loader.launch.PropertiesLauncher ...}.
+ * Параметр {@code --count} печатает только число найденных событий.
+ */
+public final class AuditLogTool {
+
+    private AuditLogTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of("audit");
+        String username = null;
+        Instant from = null;
+        Instant to = null;
+        long limit = Long.MAX_VALUE;
+        boolean countOnly = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dir" -> directory = Path.of(args[++i]);
+                case "--user" -> username = args[++i];
+                case "--from" -> from = Instant.parse(args[++i]);
+                case "--to" -> to = Instant.parse(args[++i]);
+                case "--limit" -> limit = Long.parseLong(args[++i]);
+                case "--count" -> countOnly = true;
+                default -> {
+                    System.err.println("Usage: AuditLogTool [--dir <path>] [--user <name>] [--from <instant>] "
+                            + "[--to <instant>] [--limit <n>] [--count]");
+                    System.exit(2);
+                }
+            }
+        }
+        PrintStream out = System.out;
+        AtomicLong found = new AtomicLong();
+        long maxResults = limit;
+        boolean print = !countOnly;
+        long scanned = new AuditLogScanner(directory).scan(username, from, to, event -> {
+            if (print) {
+                out.println(format(event));
+            }
+            return found.incrementAndGet() < maxResults;
+        });
+        if (countOnly) {
+            out.println(found.get());
+        }
+        System.err.printf("found %d of %d scanned events%n", found.get(), scanned);
+    }
+
+    static String format(AuditEvent event) {
+        return Instant.ofEpochMilli(event.timestamp()) + " " + event.type() + " " + event.outcome()
+                + " user=" + (event.username() == null ? "-" : event.username())
+                + " userId=" + event.userId() + " sessionId=" + event.sessionId();
+    }
+}
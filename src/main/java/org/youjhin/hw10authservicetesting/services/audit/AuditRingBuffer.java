@@ -0,0 +1,89 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченный кольцевой буфер без блокировок для многих производителей и одного потребителя.
+ * Каждая ячейка хранит номер последовательности: производитель занимает позицию CAS-ом по хвосту и публикует
+ * событие, записывая номер ячейки; потребитель читает только опубликованные ячейки. Если буфер полон,
+ * {@link #offer} сразу возвращает false — поток запроса никогда не ждёт журнал.
+ */
+class AuditRingBuffer {
+
+    private final int mask;
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity Ёмкость буфера; округляется вверх до степени двойки.
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавляет событие; безопасно вызывать из любых потоков.
+     * @return false, если буфер полон.
+     */
+    boolean offer(AuditEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // Иначе позицию уже занял другой производитель — пробуем следующую
+        }
+    }
+
+    /**
+     * Передаёт потребителю до {@code limit} опубликованных событий; вызывается только одним потоком.
+     * @return число переданных событий.
+     */
+    int drain(Consumer<AuditEvent> consumer, int limit) {
+        int drained = 0;
+        long position = head;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            AuditEvent event = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, position + mask + 1);
+            head = ++position;
+            drained++;
+            consumer.accept(event);
+        }
+        return drained;
+    }
+
+    /**
+     * @return приблизительное число событий в буфере.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,202 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Запись событий аудита в сегментированный журнал на отображённых в память файлах.
+ * <p>
+ * Сегмент — файл {@code audit-<номер>.seg} фиксированного размера. Заголовок ({@value #HEADER_SIZE} байт):
+ * сигнатура, версия, время первого и последнего события, конец записанных данных. Запись события:
+ * длина записи (int), время (long), тип (byte), исход (byte), идентификатор пользователя (long),
+ * идентификатор сессии (long), длина имени (short) и имя в UTF-8. Время первого и последнего события
+ * в заголовке позволяет при поиске пропускать целые сегменты.
+ * <p>
+ * Когда событие не помещается, сегмент сбрасывается на диск и открывается следующий; после этого удаляются
+ * сегменты сверх {@code maxSegments} и старше {@code maxAge}. После перезапуска запись начинается с нового
+ * сегмента. Класс не потокобезопасен: им пользуется один поток записи.
+ */
+class AuditSegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x41554454; // "AUDT"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int FIRST_TIMESTAMP_OFFSET = 8;
+    static final int LAST_TIMESTAMP_OFFSET = 16;
+    static final int END_OFFSET = 24;
+    static final int RECORD_HEADER_SIZE = 4 + 8 + 1 + 1 + 8 + 8 + 2;
+    static final int MAX_USERNAME_BYTES = 1024;
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".seg";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSegmentWriter.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    private long segmentNumber;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+
+    /**
+     * @param directory Каталог журнала; создаётся при необходимости.
+     * @param segmentSize Размер сегмента в байтах.
+     * @param maxSegments Максимальное число хранимых сегментов.
+     * @param maxAge Максимальный возраст закрытого сегмента.
+     * @param clock Часы для проверки возраста сегментов.
+     * @throws IOException если каталог или сегмент не удалось создать.
+     */
+    AuditSegmentWriter(Path directory, int segmentSize, int maxSegments, Duration maxAge, Clock clock) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_HEADER_SIZE + MAX_USERNAME_BYTES) {
+            throw new IllegalArgumentException("Audit segment size is too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        Files.createDirectories(directory);
+        List<Path> existing = segments(directory);
+        this.segmentNumber = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1));
+        openNextSegment();
+    }
+
+    /**
+     * Дописывает событие в текущий сегмент, при необходимости открывая следующий.
+     * @param event Событие.
+     * @throws IOException если не удалось открыть следующий сегмент.
+     */
+    void append(AuditEvent event) throws IOException {
+        byte[] username = encode(event.username());
+        int length = RECORD_HEADER_SIZE + username.length;
+        if (segment.position() + length > segmentSize) {
+            openNextSegment();
+        }
+        if (segment.getLong(FIRST_TIMESTAMP_OFFSET) == 0) {
+            segment.putLong(FIRST_TIMESTAMP_OFFSET, event.timestamp());
+        }
+        segment.putInt(length)
+                .putLong(event.timestamp())
+                .put((byte) event.type().ordinal())
+                .put((byte) event.outcome().ordinal())
+                .putLong(event.userId())
+                .putLong(event.sessionId())
+                .putShort((short) username.length)
+                .put(username);
+        segment.putLong(LAST_TIMESTAMP_OFFSET, Math.max(segment.getLong(LAST_TIMESTAMP_OFFSET), event.timestamp()));
+        // Конец данных записывается последним: читатель не увидит недописанную запись
+        segment.putInt(END_OFFSET, segment.position());
+        dirty = true;
+    }
+
+    /**
+     * Сбрасывает изменённые страницы текущего сегмента на диск.
+     */
+    void force() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void openNextSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            dirty = false;
+        }
+        segmentNumber++;
+        Path path = directory.resolve(fileName(segmentNumber));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.order(ByteOrder.BIG_ENDIAN);
+        segment.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        segment.putInt(END_OFFSET, HEADER_SIZE);
+        segment.position(HEADER_SIZE);
+        applyRetention();
+    }
+
+    private void applyRetention() throws IOException {
+        List<Path> existing = segments(directory);
+        long oldest = clock.millis() - maxAge.toMillis();
+        // Последний сегмент — текущий, его не удаляем
+        for (int i = 0; i < existing.size() - 1; i++) {
+            Path path = existing.get(i);
+            if (existing.size() - i > maxSegments || Files.getLastModifiedTime(path).toMillis() < oldest) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete audit segment {}", path, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Кодирует имя в UTF-8, обрезая его до {@value #MAX_USERNAME_BYTES} байт по границе символа.
+     */
+    private static byte[] encode(String username) {
+        if (username == null) {
+            return new byte[0];
+        }
+        byte[] bytes = username.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_USERNAME_BYTES) {
+            return bytes;
+        }
+        int end = MAX_USERNAME_BYTES;
+        // Байты продолжения (10xxxxxx) принадлежат символу, начатому раньше: отступаем к его первому байту
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    /**
+     * Возвращает сегменты каталога в порядке записи.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static String fileName(long number) {
+        return PREFIX + String.format("%020d", number) + SUFFIX;
+    }
+
+    private static long number(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,25 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+/**
+ * Строка, которую не удалось импортировать.
+ * @param line Номер строки во входных данных.
+ * @param username Имя пользователя, если его удалось прочитать.
+ * @param reason Причина отказа.
+ * @param message Описание ошибки.
+ */
+public record ImportFailure(long line, String username, Reason reason, String message) {
+
+    /**
+     * Причина, по которой строка не импортирована.
+     */
+    public enum Reason {
+        /** Строку не удалось разобрать или в ней нет обязательных полей. */
+        INVALID,
+        /** Имя пользователя повторяется в импортируемых данных. */
+        DUPLICATE,
+        /** Пользователь с таким именем уже зарегистрирован. */
+        ALREADY_EXISTS,
+        /** Ошибка при хэшировании или записи в базу. */
+        FAILED
+    }
+}
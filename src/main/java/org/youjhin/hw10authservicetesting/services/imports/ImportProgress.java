@@ -0,0 +1,10 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+/**
+ * Ход импорта.
+ * @param processed Число прочитанных строк.
+ * @param imported Число созданных пользователей.
+ * @param failed Число строк с ошибками.
+ */
+public record ImportProgress(long processed, long imported, long failed) {
+}
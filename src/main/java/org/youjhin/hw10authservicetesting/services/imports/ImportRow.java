@@ -0,0 +1,11 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+/**
+ * Строка файла импорта.
+ * @param line Номер строки во входных данных (с единицы).
+ * @param username Имя пользователя.
+ * @param password Пароль в открытом виде или null, если передан готовый хэш.
+ * @param passwordHash Готовый хэш пароля с префиксом алгоритма или null.
+ */
+public record ImportRow(long line, String username, String password, String passwordHash) {
+}
@@ -0,0 +1,11 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+/**
+ * Получатель событий импорта. Вызывается в потоке, выполняющем импорт.
+ */
+public interface UserImportListener {
+
+    void onFailure(ImportFailure failure);
+
+    void onProgress(ImportProgress progress);
+}
@@ -0,0 +1,23 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки массового импорта пользователей ({@code auth.import.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.import")
+public class UserImportProperties {
+
+    /** Число строк в одной пачке: проверка дубликатов, хэширование и вставка выполняются пачками. */
+    private int batchSize = 1000;
+
+    /**
+     * Число потоков для хэширования паролей при импорте; по умолчанию четверть доступных ядер.
+     * Больше половины ядер не выделяется, чтобы импорт не вытеснял входы пользователей.
+     */
+    private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+}
@@ -0,0 +1,137 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Построчное чтение файла импорта без загрузки его целиком в память.
+ * <ul>
+ *     <li>CSV: первая строка — заголовок {@code username,password} или {@code username,passwordHash};
+ *     имя пользователя не содержит запятых, всё после первой запятой — пароль.</li>
+ *     <li>NDJSON: по объекту на строку, {@code {"username": ..., "password": ...}}
+ *     или {@code {"username": ..., "passwordHash": ...}}.</li>
+ * </ul>
+ * Пустые строки пропускаются.
+ */
+public class UserImportReader {
+
+    /**
+     * Формат входных данных.
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String PASSWORD = "password";
+    private static final String PASSWORD_HASH = "passwordHash";
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private long line;
+    private boolean headerRead;
+    private boolean csvHashes;
+
+    /**
+     * @param reader Источник данных.
+     * @param format Формат данных.
+     * @param objectMapper Разбор JSON для формата NDJSON.
+     */
+    public UserImportReader(Reader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Читает следующую строку.
+     * @return строка импорта или null, если данные закончились.
+     * @throws MalformedRowException если строку не удалось разобрать; чтение можно продолжать.
+     */
+    public ImportRow next() {
+        String text = nextNonBlankLine();
+        if (text == null) {
+            return null;
+        }
+        if (format == Format.CSV && !headerRead) {
+            readCsvHeader(text);
+            text = nextNonBlankLine();
+            if (text == null) {
+                return null;
+            }
+        }
+        return format == Format.CSV ? parseCsv(text) : parseJson(text);
+    }
+
+    private void readCsvHeader(String header) {
+        headerRead = true;
+        String normalized = header.replace(" ", "");
+        if (normalized.equalsIgnoreCase("username," + PASSWORD_HASH)) {
+            csvHashes = true;
+        } else if (!normalized.equalsIgnoreCase("username," + PASSWORD)) {
+            throw new IllegalArgumentException("CSV header must be 'username,password' or 'username,passwordHash'");
+        }
+    }
+
+    private ImportRow parseCsv(String text) {
+        int comma = text.indexOf(',');
+        if (comma <= 0 || comma == text.length() - 1) {
+            throw new MalformedRowException(line, "expected 'username,password'");
+        }
+        String username = text.substring(0, comma).trim();
+        String secret = text.substring(comma + 1);
+        return csvHashes ? new ImportRow(line, username, null, secret.trim()) : new ImportRow(line, username, secret, null);
+    }
+
+    private ImportRow parseJson(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (IOException e) {
+            throw new MalformedRowException(line, "invalid JSON");
+        }
+        String username = node.path("username").asText(null);
+        String password = node.path(PASSWORD).asText(null);
+        String passwordHash = node.path(PASSWORD_HASH).asText(null);
+        if (username == null || username.isBlank() || (password == null) == (passwordHash == null)) {
+            throw new MalformedRowException(line, "expected 'username' and one of 'password' or 'passwordHash'");
+        }
+        return new ImportRow(line, username, password, passwordHash);
+    }
+
+    private String nextNonBlankLine() {
+        try {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Строка не соответствует формату.
+     */
+    public static class MalformedRowException extends RuntimeException {
+
+        private final long line;
+
+        public MalformedRowException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+
+        public long getLine() {
+            return line;
+        }
+    }
+}
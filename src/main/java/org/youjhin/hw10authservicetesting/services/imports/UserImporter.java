@@ -0,0 +1,230 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.youjhin.hw10authservicetesting.config.CacheConfig;
+import org.youjhin.hw10authservicetesting.security.BoundedPasswordEncoder;
+import org.youjhin.hw10authservicetesting.services.users.DuplicateUsernames;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Массовый импорт пользователей.
+ * Данные читаются потоково и обрабатываются пачками по {@code auth.import.batch-size} строк, поэтому память
+ * не зависит от размера файла. Для каждой пачки:
+ * <ol>
+ *     <li>дубликаты внутри пачки отсекаются без обращения к базе;</li>
+ *     <li>существующие имена (в том числе импортированные предыдущими пачками) проверяются
+ *     одним запросом {@code username in (...)} на всю пачку;</li>
+ *     <li>пароли хэшируются параллельно в собственном пуле импорта;</li>
+ *     <li>пользователи вставляются одним пакетом JDBC в транзакции; если пакет не прошёл, он откатывается
+ *     и строки вставляются по одной, чтобы найти ошибочные.</li>
+ * </ol>
+ * Хэширование идёт мимо {@link BoundedPasswordEncoder}: импорт не должен вытеснять входы пользователей
+ * из ограниченной очереди, а его собственный пул ограничен {@code auth.import.hashing-threads} и не больше половины ядер.
+ */
+@Service
+public class UserImporter implements DisposableBean {
+
+    private static final String INSERT_USER = "insert into user_entity (username, password) values (?, ?)";
+    private static final String SELECT_EXISTING = "select username from user_entity where username in (:usernames)";
+    /**
+     * Готовый хэш принимается только в формате, который понимает кодировщик приложения: {@code {bcrypt}} и хэш BCrypt.
+     * Хэши других алгоритмов ({@code {noop}}, {@code {sha256}} и т. п.) кодировщик не сопоставляет,
+     * и вход таких пользователей заканчивался бы ошибкой.
+     */
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\{bcrypt}\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Cache userCache;
+    private final UsernameFilter usernameFilter;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final ExecutorService hashingPool;
+
+    /**
+     * @param jdbcTemplate Доступ к базе для пакетной вставки.
+     * @param transactionManager Менеджер транзакций для атомарной вставки пачки.
+     * @param namedParameterJdbcTemplate Доступ к базе для проверки существующих имён.
+     * @param passwordEncoder Кодировщик паролей приложения.
+     * @param cacheManager Менеджер кэшей (для сброса записей о созданных пользователях).
+     * @param objectMapper Разбор JSON для формата NDJSON.
+     * @param usernameFilter Фильтр Блума по именам пользователей (пополняется импортированными именами).
+     * @param properties Настройки импорта.
+     */
+    public UserImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                        PasswordEncoder passwordEncoder, CacheManager cacheManager, ObjectMapper objectMapper,
+                        UsernameFilter usernameFilter, UserImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.getDelegate() : passwordEncoder;
+        this.userCache = cacheManager.getCache(CacheConfig.USERS_BY_USERNAME);
+        this.objectMapper = objectMapper;
+        this.usernameFilter = usernameFilter;
+        this.batchSize = properties.getBatchSize();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(hashingThreads(properties.getHashingThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Импортирует пользователей из потока данных.
+     * @param input Данные в формате CSV или NDJSON.
+     * @param format Формат данных.
+     * @param listener Получатель ошибок по строкам и хода импорта (после каждой пачки).
+     * @return итог импорта.
+     */
+    public ImportProgress importUsers(Reader input, UserImportReader.Format format, UserImportListener listener) {
+        UserImportReader reader = new UserImportReader(input, format, objectMapper);
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        long processed = 0;
+        long imported = 0;
+        long failed = 0;
+        while (true) {
+            ImportRow row;
+            try {
+                row = reader.next();
+            } catch (UserImportReader.MalformedRowException e) {
+                processed++;
+                failed++;
+                listener.onFailure(new ImportFailure(e.getLine(), null, ImportFailure.Reason.INVALID, e.getMessage()));
+                continue;
+            }
+            if (row != null) {
+                processed++;
+                // Дубликаты из предыдущих пачек уже в базе и отсекаются как ALREADY_EXISTS
+                if (!seen.add(row.username())) {
+                    failed++;
+                    listener.onFailure(new ImportFailure(row.line(), row.username(), ImportFailure.Reason.DUPLICATE,
+                            "duplicate username in import"));
+                    continue;
+                }
+                batch.add(row);
+            }
+            if (batch.size() == batchSize || (row == null && !batch.isEmpty())) {
+                int inserted = importBatch(batch, listener);
+                imported += inserted;
+                failed += batch.size() - inserted;
+                batch.clear();
+                seen.clear();
+                listener.onProgress(new ImportProgress(processed, imported, failed));
+            }
+            if (row == null) {
+                return new ImportProgress(processed, imported, failed);
+            }
+        }
+    }
+
+    /**
+     * Ограничивает пул импорта половиной ядер, чтобы импорт не отнимал процессор у входов пользователей.
+     */
+    static int hashingThreads(int configured) {
+        int cap = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return Math.clamp(configured, 1, cap);
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+
+    private int importBatch(List<ImportRow> batch, UserImportListener listener) {
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_EXISTING,
+                Map.of("usernames", batch.stream().map(ImportRow::username).toList()), String.class));
+
+        Map<ImportRow, CompletableFuture<String>> hashes = new LinkedHashMap<>();
+        for (ImportRow row : batch) {
+            if (existing.contains(row.username())) {
+                listener.onFailure(new ImportFailure(row.line(), row.username(), ImportFailure.Reason.ALREADY_EXISTS,
+                        "user already exists"));
+            } else if (row.passwordHash() != null) {
+                if (BCRYPT_HASH.matcher(row.passwordHash()).matches()) {
+                    hashes.put(row, CompletableFuture.completedFuture(row.passwordHash()));
+                } else {
+                    listener.onFailure(new ImportFailure(row.line(), row.username(), ImportFailure.Reason.INVALID,
+                            "password hash must be a BCrypt hash with the {bcrypt} prefix"));
+                }
+            } else {
+                hashes.put(row, CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.password()), hashingPool));
+            }
+        }
+
+        List<ImportRow> rows = new ArrayList<>(hashes.size());
+        List<Object[]> values = new ArrayList<>(hashes.size());
+        hashes.forEach((row, hash) -> {
+            try {
+                values.add(new Object[]{row.username(), hash.join()});
+                rows.add(row);
+            } catch (CompletionException e) {
+                listener.onFailure(new ImportFailure(row.line(), row.username(), ImportFailure.Reason.FAILED,
+                        "password hashing failed: " + e.getCause().getMessage()));
+            }
+        });
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int inserted = insert(rows, values, listener);
+        rows.forEach(row -> {
+            userCache.evict(row.username());
+            usernameFilter.add(row.username());
+        });
+        return inserted;
+    }
+
+    private int insert(List<ImportRow> rows, List<Object[]> values, UserImportListener listener) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, values));
+            return rows.size();
+        } catch (DataAccessException batchFailure) {
+            int inserted = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    jdbcTemplate.update(INSERT_USER, values.get(i));
+                    inserted++;
+                } catch (DataIntegrityViolationException e) {
+                    // Имя заняли между проверкой пачки и вставкой
+                    boolean duplicate = DuplicateUsernames.isDuplicateUsername(e);
+                    listener.onFailure(new ImportFailure(rows.get(i).line(), rows.get(i).username(),
+                            duplicate ? ImportFailure.Reason.ALREADY_EXISTS : ImportFailure.Reason.FAILED,
+                            duplicate ? "user already exists" : e.getMostSpecificCause().getMessage()));
+                } catch (DataAccessException e) {
+                    listener.onFailure(new ImportFailure(rows.get(i).line(), rows.get(i).username(),
+                            ImportFailure.Reason.FAILED, e.getMostSpecificCause().getMessage()));
+                }
+            }
+            return inserted;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package org.youjhin.hw10authservicetesting.services.interfaces;
 
 import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.services.LoginResult;
 
 public interface AuthService {
 
     boolean register(UserEntity user);
 
+    boolean isUsernameAvailable(String username);
+
     boolean login(String username, String password);
 
+    LoginResult authenticate(String username, String password);
+
     void logout(Long userId);
 
+    void logoutSession(Long sessionId, Long userId, String username);
+
+    boolean deleteUser(String username);
 
 }
@@ -0,0 +1,15 @@
+package org.youjhin.hw10authservicetesting.services.interfaces;
+
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.services.LoginResult;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthService {
+
+    Mono<Boolean> register(UserEntity user);
+
+    Mono<LoginResult> authenticate(String username, String password);
+
+    Mono<Void> logoutSession(Long sessionId, Long userId, String username);
+
+}
@@ -0,0 +1,17 @@
+package org.youjhin.hw10authservicetesting.services.interfaces;
+
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+
+import java.util.Optional;
+
+public interface SessionStore {
+
+    void save(SessionEntity session);
+
+    Optional<SessionEntity> findById(Long sessionId);
+
+    void delete(Long sessionId);
+
+    void deleteByUserId(Long userId);
+
+}
@@ -0,0 +1,80 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фоновое удаление истёкших сессий из базы.
+ * Сессии удаляются порциями фиксированного размера, каждая порция — в отдельной короткой транзакции
+ * по индексу {@code createdAt}, поэтому очистка большой таблицы не держит долгих блокировок
+ * и не создаёт огромных транзакций.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.sessions.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredSessionPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredSessionPurgeJob.class);
+
+    private final SessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionStoreProperties properties;
+    private final Clock clock;
+
+    /**
+     * @param sessionRepository Репозиторий сессий.
+     * @param transactionTemplate Шаблон транзакций для удаления порций.
+     * @param properties Настройки хранилища сессий и очистки.
+     */
+    public ExpiredSessionPurgeJob(SessionRepository sessionRepository, TransactionTemplate transactionTemplate,
+                                  SessionStoreProperties properties) {
+        this.sessionRepository = sessionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = Clock.systemDefaultZone();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.sessions.purge.interval:PT1M}")
+    public void run() {
+        int purged = purgeExpired();
+        if (purged > 0) {
+            log.info("Purged {} expired sessions", purged);
+        }
+    }
+
+    /**
+     * Удаляет сессии старше {@code auth.sessions.ttl} порциями до {@code maxChunksPerRun} порций.
+     * @return число удалённых сессий.
+     */
+    public int purgeExpired() {
+        SessionStoreProperties.Purge purge = properties.getPurge();
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getTtl());
+        int total = 0;
+        for (int chunk = 0; chunk < purge.getMaxChunksPerRun(); chunk++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = sessionRepository.findIdsCreatedBefore(cutoff, Limit.of(purge.getChunkSize()));
+                return ids.isEmpty() ? 0 : sessionRepository.deleteByIdIn(ids);
+            });
+            total += deleted == null ? 0 : deleted;
+            if (deleted == null || deleted < purge.getChunkSize()) {
+                break;
+            }
+            try {
+                Thread.sleep(purge.getChunkPause().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+}
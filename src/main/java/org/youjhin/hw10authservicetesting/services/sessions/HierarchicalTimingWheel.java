@@ -0,0 +1,153 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Иерархическое колесо таймеров для массового истечения элементов по сроку.
+ * Нижний уровень имеет {@code wheelSize} ячеек по {@code tickMillis}, каждый следующий уровень — ячейки
+ * в {@code wheelSize} раз крупнее. Добавление и истечение выполняются за O(1) на элемент независимо
+ * от числа элементов; элементы с далёким сроком постепенно спускаются на нижние уровни.
+ * Сроки округляются вверх до шага колеса.
+ * Добавление не берёт блокировок: элементы попадают в неблокирующую очередь и раскладываются по ячейкам
+ * при следующем {@link #advance(long)}. Ячейки меняет только {@code advance}, поэтому его блокировку
+ * берёт лишь поток истечения, и потоки запросов с ним не конкурируют.
+ * @param <T> Тип элементов.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTicks;
+    private final List<List<Entry<T>>> buckets; // уровень * wheelSize + ячейка
+    private final ConcurrentLinkedQueue<Entry<T>> inbox = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile long currentTime;
+
+    /**
+     * @param tickMillis Шаг нижнего уровня, мс.
+     * @param wheelSize Число ячеек на каждом уровне.
+     * @param levels Число уровней.
+     * @param startMillis Начальное время колеса, мс.
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levels];
+        long levelTick = tickMillis;
+        for (int level = 0; level < levels; level++) {
+            levelTicks[level] = levelTick;
+            levelTick = Math.multiplyExact(levelTick, wheelSize);
+        }
+        this.buckets = new ArrayList<>(levels * wheelSize);
+        for (int i = 0; i < levels * wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * Добавляет элемент со сроком истечения.
+     * @param item Элемент.
+     * @param deadlineMillis Момент истечения, мс.
+     * @return true, если элемент добавлен; false, если срок уже наступил.
+     */
+    public boolean schedule(T item, long deadlineMillis) {
+        long deadline = roundUp(deadlineMillis);
+        if (deadline <= currentTime) {
+            return false;
+        }
+        size.incrementAndGet();
+        inbox.add(new Entry<>(item, deadline));
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до указанного момента и возвращает истёкшие элементы.
+     * @param nowMillis Текущее время, мс.
+     * @return элементы, срок которых наступил.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            // Элементы, добавленные с прошлого шага; их срок мог наступить, пока они ждали в очереди
+            for (Entry<T> entry = inbox.poll(); entry != null; entry = inbox.poll()) {
+                if (!place(entry)) {
+                    expired.add(entry.item);
+                    size.decrementAndGet();
+                }
+            }
+            while (currentTime + tickMillis <= nowMillis) {
+                currentTime += tickMillis;
+                // Сначала спускаем элементы с верхних уровней, чья крупная ячейка началась в этот момент
+                for (int level = levelTicks.length - 1; level > 0; level--) {
+                    if (currentTime % levelTicks[level] == 0) {
+                        for (Entry<T> entry : drain(level, currentTime / levelTicks[level])) {
+                            if (!place(entry)) {
+                                expired.add(entry.item);
+                                size.decrementAndGet();
+                            }
+                        }
+                    }
+                }
+                for (Entry<T> entry : drain(0, currentTime / tickMillis)) {
+                    expired.add(entry.item);
+                    size.decrementAndGet();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    /** @return число элементов в колесе. */
+    public int size() {
+        return size.get();
+    }
+
+    private boolean place(Entry<T> entry) {
+        for (int level = 0; level < levelTicks.length; level++) {
+            long window = entry.deadline / levelTicks[level];
+            long currentWindow = currentTime / levelTicks[level];
+            if (level == 0 && window <= currentWindow) {
+                return false;
+            }
+            if (window - currentWindow < wheelSize) {
+                bucket(level, window).add(entry);
+                return true;
+            }
+        }
+        // Срок дальше диапазона колеса: кладём в самую дальнюю ячейку верхнего уровня, оттуда элемент спустится позже
+        int top = levelTicks.length - 1;
+        bucket(top, currentTime / levelTicks[top] + wheelSize - 1).add(entry);
+        return true;
+    }
+
+    private List<Entry<T>> bucket(int level, long window) {
+        return buckets.get(level * wheelSize + (int) Math.floorMod(window, (long) wheelSize));
+    }
+
+    private List<Entry<T>> drain(int level, long window) {
+        List<Entry<T>> bucket = bucket(level, window);
+        if (bucket.isEmpty()) {
+            return List.of();
+        }
+        List<Entry<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        return entries;
+    }
+
+    private long roundUp(long millis) {
+        long remainder = Math.floorMod(millis, tickMillis);
+        return remainder == 0 ? millis : millis - remainder + tickMillis;
+    }
+
+    private record Entry<T>(T item, long deadline) {
+    }
+}
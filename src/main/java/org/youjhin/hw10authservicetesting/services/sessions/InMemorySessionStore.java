@@ -0,0 +1,193 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хранилище сессий в памяти для проверки сессии на каждом запросе без обращения к базе.
+ * Сессии индексируются по идентификатору и по идентификатору пользователя в {@link ConcurrentHashMap}
+ * (чтение без блокировок, запись с блокировкой только одной ячейки таблицы). Истёкшие сессии
+ * ({@code createdAt + ttl}) удаляются {@link HierarchicalTimingWheel}, а при чтении дополнительно
+ * проверяется срок, поэтому истёкшая сессия не возвращается даже между шагами колеса.
+ * Необязательный надёжный уровень (обычно {@link RepositorySessionStore}) получает все изменения
+ * и используется для чтения сессий, которых нет в памяти, например после перезапуска. Идентификаторы,
+ * не найденные и там, запоминаются на {@code negativeTtl}, чтобы поддельные и истёкшие cookie не обращались к базе
+ * на каждом запросе. Без надёжного уровня идентификаторы назначает {@link SessionIdGenerator},
+ * а база не используется вовсе.
+ */
+public class InMemorySessionStore implements SessionStore, InitializingBean, DisposableBean {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    private static final long MAXIMUM_MISSES = 100_000;
+
+    private final SessionStore durableStore;
+    private final SessionIdGenerator sessionIdGenerator;
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final Clock clock;
+    private final ZoneId zone;
+
+    private final ConcurrentHashMap<Long, SessionEntity> sessionsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> sessionIdsByUser = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<Long> expiryWheel;
+    private final Cache<Long, Boolean> recentMisses;
+    private ScheduledExecutorService expiryTicker;
+
+    /**
+     * @param durableStore Надёжный уровень хранения или {@code null}, если сессии живут только в памяти.
+     * @param sessionIdGenerator Генератор идентификаторов сессий для режима без надёжного уровня.
+     * @param ttl Время жизни сессии от момента создания.
+     * @param expiryTick Шаг колеса таймеров.
+     * @param negativeTtl Сколько помнить идентификаторы, не найденные на надёжном уровне.
+     * @param clock Часы, по которым отсчитывается время жизни.
+     */
+    public InMemorySessionStore(SessionStore durableStore, SessionIdGenerator sessionIdGenerator, Duration ttl,
+                                Duration expiryTick, Duration negativeTtl, Clock clock) {
+        this.durableStore = durableStore;
+        this.sessionIdGenerator = sessionIdGenerator;
+        this.ttlMillis = ttl.toMillis();
+        this.tickMillis = expiryTick.toMillis();
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.expiryWheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, clock.millis());
+        this.recentMisses = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(MAXIMUM_MISSES)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    @Override
+    public void save(SessionEntity session) {
+        if (durableStore != null) {
+            durableStore.save(session); // назначает идентификатор и сохраняет сессию
+        } else if (session.getId() == null) {
+            session.setId(sessionIdGenerator.nextId());
+        }
+        cache(session);
+    }
+
+    @Override
+    public Optional<SessionEntity> findById(Long sessionId) {
+        SessionEntity session = sessionsById.get(sessionId);
+        if (session == null && durableStore != null) {
+            if (recentMisses.getIfPresent(sessionId) != null) {
+                return Optional.empty();
+            }
+            Optional<SessionEntity> stored = durableStore.findById(sessionId);
+            if (stored.isPresent()) {
+                cache(stored.get());
+            } else {
+                recentMisses.put(sessionId, Boolean.TRUE);
+            }
+            return stored;
+        }
+        if (session == null || isExpired(session, clock.millis())) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    @Override
+    public void delete(Long sessionId) {
+        SessionEntity session = sessionsById.remove(sessionId);
+        if (session != null) {
+            unindex(session);
+        }
+        if (durableStore != null) {
+            durableStore.delete(sessionId);
+        }
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        Set<Long> sessionIds = sessionIdsByUser.remove(userId);
+        if (sessionIds != null) {
+            sessionIds.forEach(sessionsById::remove);
+        }
+        if (durableStore != null) {
+            durableStore.deleteByUserId(userId);
+        }
+    }
+
+    /**
+     * Удаляет из памяти сессии, срок которых истёк к текущему моменту.
+     * Надёжный уровень не затрагивается: истёкшие записи в базе удаляются отдельно.
+     */
+    public void expireSessions() {
+        long now = clock.millis();
+        for (Long sessionId : expiryWheel.advance(now)) {
+            SessionEntity session = sessionsById.get(sessionId);
+            if (session != null && isExpired(session, now) && sessionsById.remove(sessionId, session)) {
+                unindex(session);
+            }
+        }
+    }
+
+    /** @return число сессий в памяти. */
+    public int size() {
+        return sessionsById.size();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        expiryTicker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiryTicker.scheduleAtFixedRate(this::expireSessions, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (expiryTicker != null) {
+            expiryTicker.shutdownNow();
+        }
+    }
+
+    private void cache(SessionEntity session) {
+        long expiresAt = expiresAt(session);
+        if (expiresAt <= clock.millis()) {
+            return;
+        }
+        sessionsById.put(session.getId(), session);
+        recentMisses.invalidate(session.getId());
+        sessionIdsByUser.compute(session.getUserId(), (userId, sessionIds) -> {
+            Set<Long> ids = sessionIds != null ? sessionIds : ConcurrentHashMap.newKeySet();
+            ids.add(session.getId());
+            return ids;
+        });
+        expiryWheel.schedule(session.getId(), expiresAt);
+    }
+
+    private void unindex(SessionEntity session) {
+        sessionIdsByUser.computeIfPresent(session.getUserId(), (userId, sessionIds) -> {
+            sessionIds.remove(session.getId());
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+
+    private boolean isExpired(SessionEntity session, long nowMillis) {
+        return expiresAt(session) <= nowMillis;
+    }
+
+    private long expiresAt(SessionEntity session) {
+        return session.getCreatedAt().atZone(zone).toInstant().toEpochMilli() + ttlMillis;
+    }
+}
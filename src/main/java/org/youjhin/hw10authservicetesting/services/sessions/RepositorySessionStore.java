@@ -0,0 +1,62 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Хранилище сессий в базе данных через {@link SessionRepository}.
+ * Новые сессии записываются через {@link SessionWriter}, поэтому сессии, ожидающие отложенной записи,
+ * тоже находятся по идентификатору.
+ */
+public class RepositorySessionStore implements SessionStore {
+
+    private final SessionRepository sessionRepository;
+    private final SessionWriter sessionWriter;
+    private final Duration ttl;
+    private final Clock clock;
+
+    /**
+     * @param sessionRepository Репозиторий сессий.
+     * @param sessionWriter Компонент записи новых сессий.
+     * @param ttl Время жизни сессии от момента создания.
+     * @param clock Часы для проверки истечения сессий.
+     */
+    public RepositorySessionStore(SessionRepository sessionRepository, SessionWriter sessionWriter, Duration ttl, Clock clock) {
+        this.sessionRepository = sessionRepository;
+        this.sessionWriter = sessionWriter;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(SessionEntity session) {
+        sessionWriter.write(session);
+    }
+
+    @Override
+    public Optional<SessionEntity> findById(Long sessionId) {
+        Optional<SessionEntity> session = sessionWriter.findPending(sessionId);
+        if (session.isEmpty()) {
+            session = sessionRepository.findById(sessionId);
+        }
+        LocalDateTime oldestValid = LocalDateTime.now(clock).minus(ttl);
+        return session.filter(s -> s.getCreatedAt().isAfter(oldestValid));
+    }
+
+    @Override
+    public void delete(Long sessionId) {
+        sessionWriter.discard(sessionId); // сессия могла ещё не дойти до базы в режиме отложенной записи
+        sessionRepository.deleteById(sessionId);
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        sessionRepository.deleteByUserId(userId);
+    }
+}
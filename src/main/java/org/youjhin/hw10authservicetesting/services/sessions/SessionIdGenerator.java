@@ -0,0 +1,59 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор 64-битных идентификаторов сессий, упорядоченных по времени создания.
+ * Формат: 41 бит миллисекунд от 2024-01-01, 10 бит номера узла, 12 бит счётчика внутри миллисекунды.
+ * Идентификаторы выдаются без обращения к базе и без блокировок, что позволяет пакетные вставки
+ * и сохраняет локальность вставок в индекс по первичному ключу.
+ */
+public class SessionIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /** Максимальный номер узла. */
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeId;
+    private final AtomicLong state = new AtomicLong(); // (миллисекунды << SEQUENCE_BITS) | счётчик
+
+    /**
+     * @param nodeId Номер узла (0..{@value #MAX_NODE_ID}), уникальный для каждого экземпляра приложения.
+     */
+    public SessionIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be in [0, " + MAX_NODE_ID + "]: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Выдаёт следующий идентификатор. Идентификаторы одного генератора строго возрастают,
+     * даже если системные часы отстают или счётчик миллисекунды исчерпан.
+     * @return новый идентификатор сессии.
+     */
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long current = state.get();
+            long millis = current >>> SEQUENCE_BITS;
+            long next;
+            if (now > millis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                next = (millis + 1) << SEQUENCE_BITS; // счётчик исчерпан — занимаем следующую миллисекунду
+            }
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки сохранения сессий ({@code auth.sessions.persistence.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.sessions.persistence")
+public class SessionPersistenceProperties {
+
+    /**
+     * Режим записи сессий.
+     */
+    public enum Mode {
+        /** Сессия сохраняется синхронно в потоке запроса. */
+        SYNC,
+        /** Сессия ставится в очередь и сохраняется пакетами в фоновом потоке. */
+        WRITE_BEHIND
+    }
+
+    /**
+     * Гарантия сохранности в режиме {@link Mode#WRITE_BEHIND}.
+     */
+    public enum Durability {
+        /** Вход завершается сразу; сессии, не успевшие записаться до аварийной остановки, теряются. */
+        ASYNC,
+        /** Вход ждёт записи пакета, в который попала сессия (групповая фиксация). */
+        GROUP_COMMIT
+    }
+
+    private Mode mode = Mode.SYNC;
+
+    private Durability durability = Durability.ASYNC;
+
+    /** Максимальный размер пакета вставок. */
+    private int batchSize = 100;
+
+    /** Максимальное время, которое сессия ждёт в очереди до записи. */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /** Ёмкость очереди; при её переполнении сессия сохраняется синхронно. */
+    private int queueCapacity = 10_000;
+
+    /** Номер узла для {@link SessionIdGenerator}; должен различаться у экземпляров приложения. */
+    private long nodeId = 0;
+}
@@ -0,0 +1,64 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки хранилища сессий ({@code auth.sessions.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.sessions")
+public class SessionStoreProperties {
+
+    /**
+     * Реализация хранилища сессий.
+     */
+    public enum Type {
+        /** Сессии читаются из {@code SessionRepository}. */
+        REPOSITORY,
+        /** Сессии хранятся в памяти; {@code SessionRepository} используется как надёжный уровень. */
+        MEMORY
+    }
+
+    private Type store = Type.REPOSITORY;
+
+    /** Время жизни сессии от момента создания. */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /** Сохранять ли сессии в {@code SessionRepository} при хранении в памяти. */
+    private boolean durable = true;
+
+    /** Шаг колеса таймеров, с которым удаляются истёкшие сессии из памяти. */
+    private Duration expiryTick = Duration.ofSeconds(1);
+
+    /** Сколько хранилище в памяти помнит идентификаторы сессий, не найденные в базе. */
+    private Duration negativeTtl = Duration.ofSeconds(10);
+
+    private final Purge purge = new Purge();
+
+    /**
+     * Настройки фонового удаления истёкших сессий из базы ({@code auth.sessions.purge.*}).
+     */
+    @Getter
+    @Setter
+    public static class Purge {
+
+        private boolean enabled = true;
+
+        /** Пауза между запусками очистки. */
+        private Duration interval = Duration.ofMinutes(1);
+
+        /** Число сессий, удаляемых одной транзакцией. */
+        private int chunkSize = 1_000;
+
+        /** Ограничение числа порций за один запуск. */
+        private int maxChunksPerRun = 100;
+
+        /** Пауза между порциями, чтобы не занимать базу непрерывно. */
+        private Duration chunkPause = Duration.ofMillis(10);
+    }
+}
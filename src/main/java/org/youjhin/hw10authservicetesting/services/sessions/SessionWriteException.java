@@ -0,0 +1,12 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+/**
+ * Исключение, сигнализирующее, что пакет с сессией не удалось записать в базу в режиме группового коммита
+ * или запись не дождалась фонового потока. Каждый ожидавший записи поток получает свой экземпляр с общей причиной.
+ */
+public class SessionWriteException extends RuntimeException {
+
+    public SessionWriteException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
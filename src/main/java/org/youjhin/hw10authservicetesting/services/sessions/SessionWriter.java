@@ -0,0 +1,224 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionPersistenceProperties.Durability;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionPersistenceProperties.Mode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Запись новых сессий в {@link SessionRepository}.
+ * В режиме {@link Mode#SYNC} сессия сохраняется в потоке запроса. В режиме {@link Mode#WRITE_BEHIND}
+ * сессия ставится в ограниченную очередь, а фоновый поток сохраняет накопленные сессии пакетами —
+ * по достижении {@code batchSize} или по истечении {@code flushInterval}. Идентификатор сессии
+ * назначается сразу через {@link SessionIdGenerator}, поэтому он известен до записи в базу.
+ * В режиме группового коммита ошибка записи пакета возвращается каждому ожидавшему потоку
+ * как {@link SessionWriteException}; так же завершается ожидание дольше {@value #GROUP_COMMIT_WAIT_INTERVALS}
+ * интервалов {@code flushInterval} (например, если фоновый поток уже остановлен), а сессия снимается с записи.
+ */
+public class SessionWriter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionWriter.class);
+
+    /** Предельное ожидание группового коммита в интервалах {@code flushInterval}. */
+    static final int GROUP_COMMIT_WAIT_INTERVALS = 20;
+
+    private final SessionRepository sessionRepository;
+    private final SessionIdGenerator idGenerator;
+    private final SessionPersistenceProperties properties;
+
+    private final BlockingQueue<PendingSession> queue;
+    private final Map<Long, PendingSession> pending = new ConcurrentHashMap<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * @param sessionRepository Репозиторий сессий.
+     * @param idGenerator Генератор идентификаторов сессий.
+     * @param properties Настройки режима записи.
+     */
+    public SessionWriter(SessionRepository sessionRepository, SessionIdGenerator idGenerator,
+                         SessionPersistenceProperties properties) {
+        this.sessionRepository = sessionRepository;
+        this.idGenerator = idGenerator;
+        this.properties = properties;
+        if (properties.getMode() == Mode.WRITE_BEHIND) {
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            this.flusher = new Thread(this::flushLoop, "session-write-behind");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.queue = null;
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Назначает сессии идентификатор (если он не задан) и сохраняет её согласно режиму записи.
+     * @param session Новая сессия.
+     * @throws SessionWriteException если в режиме группового коммита не удалось записать пакет с сессией
+     * или запись не завершилась за отведённое время.
+     */
+    public void write(SessionEntity session) {
+        if (session.getId() == null) {
+            session.setId(idGenerator.nextId());
+        }
+        if (queue == null) {
+            sessionRepository.save(session);
+            return;
+        }
+        PendingSession entry = new PendingSession(session);
+        pending.put(session.getId(), entry);
+        if (!queue.offer(entry)) {
+            // Очередь переполнена: не теряем сессию, а сохраняем её синхронно
+            pending.remove(session.getId());
+            sessionRepository.save(session);
+            return;
+        }
+        if (properties.getDurability() == Durability.GROUP_COMMIT) {
+            awaitWritten(entry);
+        }
+    }
+
+    private void awaitWritten(PendingSession entry) {
+        Long sessionId = entry.session.getId();
+        long timeoutNanos = properties.getFlushInterval().toNanos() * GROUP_COMMIT_WAIT_INTERVALS;
+        try {
+            entry.written.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new SessionWriteException("Failed to write session " + sessionId, e.getCause());
+        } catch (TimeoutException e) {
+            discard(sessionId);
+            throw new SessionWriteException("Timed out waiting for session " + sessionId + " to be written", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discard(sessionId);
+            throw new SessionWriteException("Interrupted while waiting for session " + sessionId + " to be written", e);
+        }
+    }
+
+    /**
+     * Отменяет запись сессии, ещё не сохранённой в базу (например, при выходе сразу после входа).
+     * Если сессия уже попала в текущий пакет, она будет удалена сразу после его записи.
+     * @param sessionId Идентификатор сессии.
+     */
+    public void discard(Long sessionId) {
+        PendingSession entry = pending.remove(sessionId);
+        if (entry != null) {
+            entry.discarded = true;
+            queue.remove(entry);
+        }
+    }
+
+    /**
+     * Возвращает сессию, ожидающую записи в базу.
+     * @param sessionId Идентификатор сессии.
+     * @return сессия, если она в очереди и ещё не сохранена.
+     */
+    public Optional<SessionEntity> findPending(Long sessionId) {
+        PendingSession entry = pending.get(sessionId);
+        return entry == null ? Optional.empty() : Optional.of(entry.session);
+    }
+
+    /**
+     * Проверяет, ожидает ли сессия записи в базу.
+     * @param sessionId Идентификатор сессии.
+     * @return true, если сессия в очереди и ещё не сохранена.
+     */
+    public boolean isPending(Long sessionId) {
+        return pending.containsKey(sessionId);
+    }
+
+    private void flushLoop() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<PendingSession> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSession first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < properties.getBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingSession next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false; // дописываем то, что осталось в очереди, и завершаемся
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingSession> batch) {
+        List<SessionEntity> sessions = new ArrayList<>(batch.size());
+        for (PendingSession entry : batch) {
+            if (!entry.discarded) {
+                sessions.add(entry.session);
+            }
+        }
+        try {
+            if (!sessions.isEmpty()) {
+                sessionRepository.saveAll(sessions);
+            }
+            List<Long> discardedDuringFlush = new ArrayList<>();
+            for (PendingSession entry : batch) {
+                pending.remove(entry.session.getId(), entry);
+                if (entry.discarded) {
+                    discardedDuringFlush.add(entry.session.getId());
+                }
+                entry.written.complete(null);
+            }
+            if (!discardedDuringFlush.isEmpty()) {
+                sessionRepository.deleteAllByIdInBatch(discardedDuringFlush);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch of {} sessions", sessions.size(), e);
+            for (PendingSession entry : batch) {
+                pending.remove(entry.session.getId(), entry);
+                entry.written.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (flusher != null) {
+            running = false;
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private static final class PendingSession {
+
+        private final SessionEntity session;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+        private volatile boolean discarded;
+
+        private PendingSession(SessionEntity session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.youjhin.hw10authservicetesting.services.users;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасный фильтр Блума для строк.
+ * Биты хранятся в {@link AtomicLongArray} и устанавливаются через CAS, поэтому добавление и проверка
+ * выполняются без блокировок. Позиции битов вычисляются двойным хэшированием от 64-битного хэша строки.
+ * Ответ «нет» точный, ответ «возможно» ошибочен с вероятностью {@link #expectedFalsePositiveRate()}.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * Создаёт фильтр оптимального размера.
+     * @param expectedInsertions Ожидаемое число элементов.
+     * @param falsePositiveRate Целевая вероятность ложноположительного ответа при этом числе элементов.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * LN2));
+    }
+
+    /**
+     * Добавляет строку в фильтр.
+     * @param value Строка.
+     */
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    /**
+     * @param value Строка.
+     * @return false, если строки точно нет в фильтре; true, если она, возможно, есть.
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Оценка вероятности ложноположительного ответа при текущем числе добавлений: {@code (1 - e^(-kn/m))^k}.
+     * @return вероятность от 0 до 1.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions.sum() / bitCount), hashCount);
+    }
+
+    /** @return число добавлений (повторные добавления тоже учитываются). */
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    /** @return размер битового массива в байтах. */
+    public long getMemoryBytes() {
+        return bitCount / 8;
+    }
+
+    /** @return число хэш-функций. */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private static long hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(hash ^ bytes.length);
+    }
+
+    /** Финальное перемешивание MurmurHash3 (fmix64). */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,31 @@
+package org.youjhin.hw10authservicetesting.services.users;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+
+import java.util.Locale;
+
+/**
+ * Распознавание нарушения уникальности имени пользователя ({@link UserEntity#USERNAME_CONSTRAINT}).
+ * Имя ограничения ищется в сообщениях цепочки причин: так его сообщают и Hibernate, и драйверы JDBC/R2DBC
+ * для H2 и MySQL.
+ */
+public final class DuplicateUsernames {
+
+    private DuplicateUsernames() {
+    }
+
+    /**
+     * @param exception Исключение при вставке пользователя.
+     * @return true, если причина — занятое имя пользователя.
+     */
+    public static boolean isDuplicateUsername(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(UserEntity.USERNAME_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
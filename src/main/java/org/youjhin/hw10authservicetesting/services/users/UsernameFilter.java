@@ -0,0 +1,212 @@
+package org.youjhin.hw10authservicetesting.services.users;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Фильтр Блума по именам зарегистрированных пользователей.
+ * Ответ «имени точно нет» позволяет не обращаться к базе при проверке занятости имени; ответ «возможно есть»
+ * проверяется запросом. Фильтр строится потоковым чтением таблицы пользователей после запуска приложения,
+ * пополняется при каждой регистрации и периодически перестраивается в фоне (а также при переполнении),
+ * после чего новый фильтр атомарно заменяет старый. Пока фильтр не построен, все проверки идут в базу.
+ * <p>
+ * Фильтр знает только имена, созданные через приложение или попавшие в последнюю перестройку: пользователи,
+ * добавленные в базу в обход приложения или на другом узле, станут видны после перестройки.
+ */
+@Service
+public class UsernameFilter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UsernameFilterProperties properties;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    /**
+     * @param jdbcTemplate Доступ к базе для чтения имён пользователей.
+     * @param properties Настройки фильтра.
+     */
+    public UsernameFilter(JdbcTemplate jdbcTemplate, UsernameFilterProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * @param username Имя пользователя.
+     * @return false, если пользователя с таким именем точно нет; true, если нужно проверить в базе.
+     */
+    public boolean mightExist(String username) {
+        checks.increment();
+        BloomFilter filter = current;
+        if (!properties.isEnabled() || filter == null || filter.mightContain(username)) {
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    /**
+     * Отмечает, что фильтр ответил «возможно есть», а в базе имени не оказалось.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Добавляет имя нового пользователя. Вызывается после того, как пользователь сохранён в базе.
+     * <p>
+     * Строящийся фильтр читается раньше текущего: перестройка публикует {@code current} до сброса
+     * {@code building}, поэтому если строящегося фильтра уже нет, то {@code current} — либо новый фильтр,
+     * либо старый, а перестройка ещё не начала читать таблицу и увидит сохранённое имя сама.
+     * @param username Имя пользователя.
+     */
+    public void add(String username) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(username);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(username);
+        }
+        if (filter != null && filter.expectedFalsePositiveRate() > 2 * properties.getFalsePositiveRate()) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Строит фильтр после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isEnabled()) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Плановая перестройка: убирает имена удалённых пользователей и подхватывает добавленные в обход приложения.
+     */
+    @Scheduled(initialDelayString = "${auth.username-filter.rebuild-interval:PT6H}",
+            fixedDelayString = "${auth.username-filter.rebuild-interval:PT6H}")
+    public void scheduledRebuild() {
+        if (properties.isEnabled()) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Запускает перестройку в фоновом потоке, если она ещё не идёт.
+     */
+    public void rebuildAsync() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Строит новый фильтр по таблице пользователей и заменяет им текущий.
+     * Имена, добавленные во время чтения таблицы, попадают и в новый фильтр.
+     */
+    public void rebuild() {
+        try {
+            Long userCount = jdbcTemplate.queryForObject("select count(*) from user_entity", Long.class);
+            long capacity = Math.max(properties.getExpectedInsertions(), 2 * (userCount == null ? 0 : userCount));
+            BloomFilter next = new BloomFilter(capacity, properties.getFalsePositiveRate());
+            building = next;
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("select username from user_entity",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(properties.getFetchSize());
+                return statement;
+            }, (ResultSet resultSet) -> next.put(resultSet.getString(1)));
+            current = next;
+            rebuilds.increment();
+            log.info("Built username filter: {} names, {} KiB, {} hash functions",
+                    next.getInsertions(), next.getMemoryBytes() / 1024, next.getHashCount());
+        } catch (RuntimeException e) {
+            log.warn("Failed to build username filter", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /** @return ожидаемая вероятность ложноположительного ответа текущего фильтра или 1, если фильтр не построен. */
+    public double getExpectedFalsePositiveRate() {
+        BloomFilter filter = current;
+        return filter == null ? 1 : filter.expectedFalsePositiveRate();
+    }
+
+    /** @return доля ложноположительных ответов среди проверок имён, которых нет в базе. */
+    public double getObservedFalsePositiveRate() {
+        long positives = falsePositives.sum();
+        long total = positives + definiteMisses.sum();
+        return total == 0 ? 0 : (double) positives / total;
+    }
+
+    /** @return память, занятая фильтрами (текущим и строящимся), в байтах. */
+    public long getMemoryBytes() {
+        BloomFilter filter = current;
+        BloomFilter next = building;
+        return (filter == null ? 0 : filter.getMemoryBytes()) + (next == null ? 0 : next.getMemoryBytes());
+    }
+
+    /** @return число имён в текущем фильтре. */
+    public long getSize() {
+        BloomFilter filter = current;
+        return filter == null ? 0 : filter.getInsertions();
+    }
+
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    public long getDefiniteMisses() {
+        return definiteMisses.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+}
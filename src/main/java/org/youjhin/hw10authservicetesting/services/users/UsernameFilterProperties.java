@@ -0,0 +1,31 @@
+package org.youjhin.hw10authservicetesting.services.users;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки фильтра Блума по именам пользователей ({@code auth.username-filter.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.username-filter")
+public class UsernameFilterProperties {
+
+    /** Использовать ли фильтр; если выключен, каждая проверка имени идёт в базу. */
+    private boolean enabled = true;
+
+    /** Минимальная ёмкость фильтра; фактическая — не меньше удвоенного числа пользователей при построении. */
+    private long expectedInsertions = 1_000_000;
+
+    /** Целевая вероятность ложноположительного ответа при заполнении до ёмкости. */
+    private double falsePositiveRate = 0.01;
+
+    /** Период плановой перестройки фильтра. */
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    /** Размер порции строк при потоковом чтении таблицы пользователей. */
+    private int fetchSize = 10_000;
+}
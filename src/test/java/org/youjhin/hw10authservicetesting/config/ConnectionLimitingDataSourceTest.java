@@ -0,0 +1,59 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private final ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:connection-limit;DB_CLOSE_DELAY=-1", "sa", ""),
+            2, Duration.ofMillis(200));
+
+    @Test
+    void whenPermitsExhausted_thenAcquisitionTimesOut() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            assertEquals(1, dataSource.getTimeouts());
+        }
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void whenConnectionClosed_thenVirtualThreadWaitingForPermitProceeds() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    return connection.isValid(1);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+            while (dataSource.getWaiting() == 0) {
+                Thread.onSpinWait();
+            }
+            assertFalse(waiting.isDone());
+
+            first.close();
+            first.close(); // повторное закрытие не возвращает разрешение второй раз
+
+            assertTrue(waiting.get(1, TimeUnit.SECONDS));
+        }
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,24 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class ReactiveAuthConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void whenReactiveApiDisabled_thenNoR2dbcConnectionFactoryCreated() {
+        assertEquals(0, context.getBeanNamesForType(ConnectionFactory.class).length);
+        assertEquals(0, context.getBeanNamesForType(DatabaseClient.class).length);
+        assertEquals(0, context.getBeanNamesForType(ReactiveAuthServer.class).length);
+    }
+}
@@ -0,0 +1,132 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Маршрутизация соединений между основным узлом и репликами; узлы — отдельные встроенные базы H2.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private final List<DataSource> nodes = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("primary");
+        connect(primary, List.of(node("replica-a"), node("replica-b"), unavailableNode()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> new JdbcTemplate(node).execute("drop table node"));
+    }
+
+    @Test
+    void whenReadOnlyTransaction_thenReadsAreSpreadOverHealthyReplicas() {
+        Set<String> readers = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            readers.add(readOnly.execute(status -> currentNode()));
+        }
+
+        // Проверка: чтение распределено между доступными репликами, недоступная исключена
+        assertEquals(Set.of("replica-a", "replica-b"), readers);
+        assertEquals(1, replicaDataSource.getEjections());
+        assertEquals(2, replicaDataSource.getHealthyReplicas());
+    }
+
+    @Test
+    void whenReadWriteTransaction_thenPrimaryIsUsed() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals(0, replicaDataSource.getReplicaReads());
+    }
+
+    @Test
+    void whenReadingOwnWrites_thenPrimaryIsUsedInReadOnlyTransaction() {
+        String reader = ReplicaRoutingDataSource.usePrimary(() -> readOnly.execute(status -> currentNode()));
+
+        assertEquals("primary", reader);
+        assertEquals(1, replicaDataSource.getPrimaryReads());
+    }
+
+    @Test
+    void whenNoReplicaIsAvailable_thenReadsFallBackToPrimary() {
+        connect(nodes.get(0), List.of(unavailableNode()));
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+        replicaDataSource.checkHealth();
+        assertEquals(0, replicaDataSource.getHealthyReplicas());
+    }
+
+    @Test
+    void whenReplicaHostIsUnreachable_thenPoolGivesUpWithinConnectionTimeout() throws Exception {
+        ReplicaProperties.Node node = new ReplicaProperties.Node();
+        // Немаршрутизируемый адрес: TCP-соединение не устанавливается и не отвергается
+        node.setUrl("jdbc:h2:tcp://10.255.255.1:9092/mem:replica");
+        node.setUsername("sa");
+        node.setPassword("");
+        try (HikariDataSource replica = DataSourceConfig.replicaPool(node, Duration.ofMillis(500))) {
+            connect(nodes.get(0), List.of(replica));
+
+            long started = System.nanoTime();
+            assertEquals("primary", readOnly.execute(status -> currentNode()));
+            replicaDataSource.checkHealth();
+            long elapsed = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+            // Проверка: ни чтение, ни проверка доступности не ждут 30 секунд по умолчанию HikariCP
+            assertTrue(elapsed < 5_000, "elapsed " + elapsed + " ms");
+            assertEquals(0, replicaDataSource.getHealthyReplicas());
+        }
+    }
+
+    private void connect(DataSource primary, List<DataSource> replicas) {
+        replicaDataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(30), Duration.ofSeconds(1),
+                Clock.systemUTC());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate node = new JdbcTemplate(dataSource);
+        node.execute("create table node (name varchar(32))");
+        node.update("insert into node values (?)", name);
+        nodes.add(dataSource);
+        return dataSource;
+    }
+
+    private static DataSource unavailableNode() {
+        // Базы с таким именем нет, а IFEXISTS запрещает её создание: соединение не устанавливается
+        return new DriverManagerDataSource("jdbc:h2:mem:replica-down;IFEXISTS=TRUE", "sa", "");
+    }
+}
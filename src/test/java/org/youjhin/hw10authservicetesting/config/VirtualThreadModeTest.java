@@ -0,0 +1,91 @@
+package org.youjhin.hw10authservicetesting.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.services.AuthServiceImpl;
+
+import javax.sql.DataSource;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Вход, запрос страницы и выход ({@code @Transactional}) при обработке запросов виртуальными потоками
+ * и пуле соединений, закрытом семафором на два разрешения.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "auth.connection-limit.enabled=true",
+        "auth.connection-limit.permits=2",
+        "auth.throttle.enabled=false"})
+public class VirtualThreadModeTest {
+
+    private static final int CLIENTS = 32;
+
+    @Autowired
+    private WebServerApplicationContext context;
+
+    @Autowired
+    private AuthServiceImpl authService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void whenManyClientsInVirtualThreadMode_thenAuthFlowSucceedsWithinConnectionLimit() throws Exception {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        String executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor().getClass().getSimpleName();
+        assertEquals("VirtualThreadExecutor", executor);
+
+        for (int i = 0; i < CLIENTS; i++) {
+            UserEntity user = new UserEntity();
+            user.setUsername("virtual-" + i);
+            user.setPassword("password");
+            authService.register(user);
+        }
+        String base = "http://localhost:" + webServer.getPort();
+        List<Callable<Integer>> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            String username = "virtual-" + i;
+            clients.add(() -> {
+                HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+                int login = client.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=" + username + "&password=password"))
+                        .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                int home = client.send(HttpRequest.newBuilder(URI.create(base + "/home")).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                int logout = client.send(HttpRequest.newBuilder(URI.create(base + "/exit")).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                return login == 200 && home == 200 && logout == 302 ? 1 : 0;
+            });
+        }
+
+        int succeeded = 0;
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Future<Integer> result : executorService.invokeAll(clients)) {
+                succeeded += result.get();
+            }
+        }
+
+        // Проверка: все клиенты прошли сценарий, ни один запрос не упёрся в тайм-аут разрешения
+        ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        assertEquals(CLIENTS, succeeded);
+        assertEquals(0, limiter.getTimeouts());
+        assertEquals(2, limiter.getAvailablePermits());
+    }
+}
@@ -0,0 +1,97 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.youjhin.hw10authservicetesting.models.UserSummary;
+import org.youjhin.hw10authservicetesting.services.admin.AdminListingService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class AdminListingControllerTest {
+
+    private static final int TABLE_SIZE = 1_000_000;
+
+    private final AdminListingService adminListingService = mock(AdminListingService.class);
+    private final AdminListingController controller = new AdminListingController(adminListingService, new ObjectMapper());
+    private final AtomicInteger rowsRead = new AtomicInteger();
+
+    @Test
+    void whenExportCompletes_thenEveryUserWrittenOnItsOwnLine() throws Exception {
+        exportRows(3);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportUsers(response);
+
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals(List.of("{\"id\":0,\"username\":\"user-0\"}", "{\"id\":1,\"username\":\"user-1\"}",
+                "{\"id\":2,\"username\":\"user-2\"}"), response.getContentAsString().lines().toList());
+        assertTrue(response.getContentAsString().endsWith("\n"));
+    }
+
+    @Test
+    void whenClientDisconnects_thenExportStopsReadingTable() {
+        exportRows(TABLE_SIZE);
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new DisconnectedOutputStream();
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> controller.exportUsers(response));
+
+        // Проверка: чтение прервано на первом сбросе буфера, а не после всей таблицы
+        assertTrue(rowsRead.get() < 1_000, "rows read: " + rowsRead.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportRows(int rows) {
+        doAnswer(invocation -> {
+            Consumer<UserSummary> consumer = invocation.getArgument(0);
+            for (int i = 0; i < rows; i++) {
+                rowsRead.incrementAndGet();
+                consumer.accept(new UserSummary((long) i, "user-" + i));
+            }
+            return null;
+        }).when(adminListingService).exportUsers(any(Consumer.class));
+    }
+
+    /**
+     * Поток ответа клиента, разорвавшего соединение: любая запись завершается ошибкой.
+     */
+    private static class DisconnectedOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
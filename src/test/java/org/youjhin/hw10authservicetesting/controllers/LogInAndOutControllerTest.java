@@ -0,0 +1,30 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.youjhin.hw10authservicetesting.security.token.TokenProperties;
+import org.youjhin.hw10authservicetesting.services.AuthServiceImpl;
+import org.youjhin.hw10authservicetesting.services.LoginResult;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+public class LogInAndOutControllerTest {
+
+    private final AuthServiceImpl authService = mock(AuthServiceImpl.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new LogInAndOutController(authService, new TokenProperties()))
+            .build();
+
+    @Test
+    void whenSessionNotSaved_thenLoginRedirectsToErrorPage() throws Exception {
+        when(authService.authenticate("user", "password"))
+                .thenReturn(LoginResult.failure(LoginResult.FailureReason.SESSION_NOT_SAVED));
+
+        mockMvc.perform(post("/login").param("username", "user").param("password", "password"))
+                .andExpect(redirectedUrl("/errorpage"));
+    }
+}
@@ -0,0 +1,121 @@
+package org.youjhin.hw10authservicetesting.controllers;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PageCacheFilterTest {
+
+    private static final String PAGE = "<html><body>" + "login form ".repeat(50) + "</body></html>";
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private PageCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PageCacheFilter(new PageCacheProperties());
+    }
+
+    @Test
+    void whenPageRequestedTwice_thenRenderedOnce() throws Exception {
+        MockHttpServletResponse first = get("/login", null, null);
+        MockHttpServletResponse second = get("/login", null, null);
+
+        // Проверка: второй ответ из кэша совпадает с отрисованным
+        assertEquals(1, renders.get());
+        assertEquals(PAGE, second.getContentAsString());
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache", second.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1, filter.getHits());
+    }
+
+    @Test
+    void whenClientAcceptsGzip_thenCompressedVariantWithOwnEtag() throws Exception {
+        MockHttpServletResponse plain = get("/login", null, null);
+        MockHttpServletResponse compressed = get("/login", "br, gzip;q=0.8", null);
+
+        assertEquals("gzip", compressed.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getHeader(HttpHeaders.ETAG), compressed.getHeader(HttpHeaders.ETAG));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getContentAsByteArray()))) {
+            assertArrayEquals(PAGE.getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+        assertNull(get("/login", "gzip;q=0", null).getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void whenEtagMatches_thenNotModifiedWithoutBody() throws Exception {
+        String etag = get("/home", null, null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = get("/home", null, "W/" + etag);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1, filter.getNotModified());
+    }
+
+    @Test
+    void whenRenderingFailsOrPathNotListed_thenResponseIsNotCached() throws Exception {
+        get("/admin/sessions", null, null);
+        get("/admin/sessions", null, null);
+        assertEquals(2, renders.get());
+
+        MockHttpServletResponse error = request("/register", null, null, 500);
+        assertEquals(500, error.getStatus());
+        assertEquals(0, filter.getSize());
+    }
+
+    @Test
+    void acceptEncodingParsing() {
+        assertTrue(PageCacheFilter.acceptsGzip("deflate, GZIP"));
+        assertFalse(PageCacheFilter.acceptsGzip("gzip; q=0"));
+        assertFalse(PageCacheFilter.acceptsGzip(null));
+    }
+
+    private MockHttpServletResponse get(String path, String acceptEncoding, String ifNoneMatch) throws Exception {
+        return request(path, acceptEncoding, ifNoneMatch, 200);
+    }
+
+    private MockHttpServletResponse request(String path, String acceptEncoding, String ifNoneMatch, int status)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                // Вместо Thymeleaf: страница «отрисовывается» и считается число отрисовок
+                renders.incrementAndGet();
+                resp.setStatus(status);
+                resp.setContentType("text/html;charset=UTF-8");
+                resp.getWriter().write(PAGE);
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,214 @@
+package org.youjhin.hw10authservicetesting.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест входа, регистрации, выхода и просмотра страниц на полном контексте со встроенной H2.
+ * <p>
+ * Каждый клиент — отдельное «устройство» со своими cookie; у каждого пользователя несколько устройств,
+ * которые независимо входят, открывают страницы и выходят. Помимо задержек проверяется изоляция:
+ * пока устройство считает себя вошедшим, {@code GET /home} должен отвечать 200 — выход другого пользователя
+ * или другого устройства того же пользователя не должен завершать его сессию; после выхода — 403.
+ * <p>
+ * Запуск: {@code mvn -Pload test}. Параметры (системные свойства):
+ * {@code load.clients}, {@code load.devices-per-user}, {@code load.duration}, {@code load.warmup},
+ * {@code load.slo.p99} (общий порог p99 в мс), {@code load.slo.<операция>.p99}
+ * (операции: register, login, logout, page), {@code load.slo.max-error-rate}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "auth.throttle.enabled=false")
+public class AuthLoadTest {
+
+    private static final String PASSWORD = "load-password";
+
+    private final int clients = Integer.getInteger("load.clients", 32);
+    private final int devicesPerUser = Integer.getInteger("load.devices-per-user", 2);
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.slo.max-error-rate", "0.001"));
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong isolationViolations = new AtomicLong();
+    private final AtomicLong registrations = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    private volatile boolean recording;
+
+    /**
+     * Операции нагрузки.
+     */
+    enum Operation {
+        REGISTER, LOGIN, LOGOUT, PAGE
+    }
+
+    @Test
+    void authFlowMeetsLatencySlosWithoutCrossSessionInterference() throws Exception {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3));
+        }
+        int users = Math.max(1, clients / devicesPerUser);
+        for (int user = 0; user < users; user++) {
+            assertTrue(register(newClient(), username(user)) == 302, "seed registration failed");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + warmup.plus(duration).toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            String username = username(client % users);
+            futures.add(pool.submit(() -> runDevice(username, deadline)));
+        }
+        Thread.sleep(warmup.toMillis());
+        recording = true;
+        long start = System.nanoTime();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        report(seconds);
+        List<String> violations = new ArrayList<>();
+        if (isolationViolations.get() > 0) {
+            violations.add(isolationViolations.get() + " session isolation violations");
+        }
+        double errorRate = requests.get() == 0 ? 0 : (double) errors.get() / requests.get();
+        if (errorRate > maxErrorRate) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate, maxErrorRate));
+        }
+        for (Operation operation : Operation.values()) {
+            long p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies.get(operation).getValueAtPercentile(99.0));
+            long sloMillis = Long.getLong("load.slo." + operation.name().toLowerCase() + ".p99", Long.getLong("load.slo.p99", 500));
+            if (p99Millis > sloMillis) {
+                violations.add(String.format("%s p99 %d ms > %d ms", operation, p99Millis, sloMillis));
+            }
+        }
+        assertTrue(violations.isEmpty(), "SLO violations: " + violations);
+    }
+
+    private void runDevice(String username, long deadline) {
+        HttpClient client = newClient();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            if (random.nextInt(100) < 5) {
+                register(client, "load-new-" + registrations.incrementAndGet());
+            }
+            if (call(Operation.LOGIN, client, form("/login", username, PASSWORD)) != 200) {
+                continue;
+            }
+            int pages = random.nextInt(1, 6);
+            for (int i = 0; i < pages; i++) {
+                int status = call(Operation.PAGE, client, get(random.nextInt(10) == 0 ? "/login" : "/home"));
+                if (status == 403) {
+                    // Устройство не выходило, а сессия пропала: её завершил чужой выход
+                    isolationViolations.incrementAndGet();
+                }
+            }
+            call(Operation.LOGOUT, client, get("/exit"));
+            if (call(Operation.PAGE, client, get("/home")) == 200) {
+                // Выход не завершил сессию
+                isolationViolations.incrementAndGet();
+            }
+        }
+    }
+
+    private int register(HttpClient client, String username) {
+        return call(Operation.REGISTER, client, form("/register", username, PASSWORD));
+    }
+
+    /**
+     * Выполняет запрос и учитывает его задержку; ответы 2xx, 3xx и 403 считаются штатными.
+     * @return код ответа или -1 при ошибке соединения.
+     */
+    private int call(Operation operation, HttpClient client, HttpRequest request) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = -1;
+        }
+        if (recording) {
+            latencies.get(operation).recordValue(Math.min(System.nanoTime() - start, TimeUnit.SECONDS.toNanos(60)));
+            requests.incrementAndGet();
+            if (status < 200 || (status >= 400 && status != 403)) {
+                errors.incrementAndGet();
+            }
+        }
+        return status;
+    }
+
+    private HttpRequest form(String path, String username, String password) {
+        String body = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    private static String username(int index) {
+        return "load-user-" + index;
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%nLoad test: %d clients, %d devices per user, %.1f s, %d requests (%.0f req/s), %d errors, %d isolation violations%n",
+                clients, devicesPerUser, seconds, requests.get(), requests.get() / seconds, errors.get(), isolationViolations.get());
+        System.out.printf("%-9s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            System.out.printf("%-9s %9d %9.0f %9.2f %9.2f %9.2f %9.2f%n", operation, histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1e6);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+}
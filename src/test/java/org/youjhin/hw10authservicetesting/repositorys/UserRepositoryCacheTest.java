@@ -0,0 +1,55 @@
+package org.youjhin.hw10authservicetesting.repositorys;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.youjhin.hw10authservicetesting.config.CacheConfig;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void whenUserMissing_thenNegativeEntryCachedAndEvictedOnSave() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.USERS_BY_USERNAME);
+        long missesBefore = cache.getNativeCache().stats().missCount();
+
+        // Первый поиск идёт в базу, второй обслуживается отрицательной записью кэша
+        assertTrue(userRepository.findByUsername("cachedUser").isEmpty());
+        assertTrue(userRepository.findByUsername("cachedUser").isEmpty());
+        assertEquals(missesBefore + 1, cache.getNativeCache().stats().missCount());
+
+        // Сохранение (регистрация) удаляет отрицательную запись
+        UserEntity user = new UserEntity();
+        user.setUsername("cachedUser");
+        user.setPassword("hash");
+        userRepository.save(user);
+
+        assertTrue(userRepository.findByUsername("cachedUser").isPresent());
+    }
+
+    @Test
+    void whenUserDeleted_thenCachedEntryEvicted() {
+        UserEntity user = new UserEntity();
+        user.setUsername("deletedUser");
+        user.setPassword("hash");
+        userRepository.save(user);
+        // Пользователь попадает в кэш поиска по имени
+        UserEntity cached = userRepository.findByUsername("deletedUser").orElseThrow();
+
+        userRepository.delete(cached);
+
+        assertTrue(userRepository.findByUsername("deletedUser").isEmpty());
+    }
+}
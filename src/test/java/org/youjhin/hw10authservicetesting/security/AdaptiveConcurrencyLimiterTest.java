@@ -0,0 +1,109 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void whenLimitReached_thenRequestsShedUntilRelease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getShed());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void whenLatencyGrowsUnderLoad_thenLimitShrinksAndRecovers() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 64, 1.5, 0.2);
+        // Полная загрузка при стабильном времени ответа: лимит растёт
+        runFullyLoaded(limiter, FAST, 20);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit grew to " + grown);
+
+        // Время ответа выросло в десять раз: лимит уменьшается почти до минимума
+        runFullyLoaded(limiter, SLOW, 50);
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk <= 8, "limit shrank to " + shrunk);
+
+        // Задержка ушла: лимит снова растёт
+        runFullyLoaded(limiter, FAST, 50);
+        assertTrue(limiter.getLimit() > shrunk, "limit recovered to " + limiter.getLimit());
+    }
+
+    @Test
+    void whenRequestFails_thenLimitBacksOff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 64, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true);
+
+        assertEquals(18, limiter.getLimit());
+        assertEquals(1, limiter.getDropped());
+    }
+
+    @Test
+    void whenPostLimitExhausted_thenServiceUnavailableButPagesServed() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 0.2);
+        ConcurrencyLimitingFilter filter = new ConcurrencyLimitingFilter(Map.of("/login", limiter));
+        assertTrue(limiter.tryAcquire());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+        filter.doFilter(request("POST"), rejected, rejectedChain);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertNull(rejectedChain.getRequest());
+
+        MockFilterChain pageChain = new MockFilterChain();
+        filter.doFilter(request("GET"), new MockHttpServletResponse(), pageChain);
+        assertNotNull(pageChain.getRequest());
+
+        limiter.release(FAST, false);
+        MockFilterChain acceptedChain = new MockFilterChain();
+        filter.doFilter(request("POST"), new MockHttpServletResponse(), acceptedChain);
+        assertNotNull(acceptedChain.getRequest());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Занимает весь текущий лимит и завершает все запросы с заданным временем ответа.
+     */
+    private static void runFullyLoaded(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos, false);
+            }
+        }
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/login");
+        request.setServletPath("/login");
+        return request;
+    }
+}
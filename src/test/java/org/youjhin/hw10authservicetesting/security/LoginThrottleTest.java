@@ -0,0 +1,64 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final LoginThrottle throttle = new LoginThrottle(
+            3, Duration.ofSeconds(10), 5, Duration.ofSeconds(1), 1_000, nanos::get);
+
+    @Test
+    void whenUsernameBurstExhausted_thenRejectedUntilRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("alice", "10.0.0." + i));
+        }
+        long wait = throttle.tryAcquire("alice", "10.0.0.9");
+        assertEquals(TimeUnit.SECONDS.toNanos(10), wait);
+        assertEquals(0, throttle.tryAcquire("bob", "10.0.0.9"));
+
+        nanos.addAndGet(wait);
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.9"));
+        assertEquals(1, throttle.getRejectedByUsername());
+    }
+
+    @Test
+    void whenClientSpraysUsernames_thenRejectedByClient() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("user-" + i, "10.0.0.1"));
+        }
+        assertTrue(throttle.tryAcquire("user-5", "10.0.0.1") > 0);
+        assertEquals(1, throttle.getRejectedByClient());
+        assertEquals(5, throttle.getAllowed());
+    }
+
+    @Test
+    void whenThrottled_thenFilterAnswers429WithoutCallingChain() throws Exception {
+        LoginThrottlingFilter filter = new LoginThrottlingFilter(throttle);
+        MockHttpServletResponse response = null;
+        MockFilterChain chain = null;
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+            request.setServletPath("/login");
+            request.setParameter("username", "alice");
+            response = new MockHttpServletResponse();
+            chain = new MockFilterChain();
+            filter.doFilter(request, response, chain);
+        }
+
+        assertEquals(429, response.getStatus());
+        assertEquals("10", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+}
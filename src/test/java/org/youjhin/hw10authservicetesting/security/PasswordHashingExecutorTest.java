@@ -0,0 +1,89 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(200));
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        executor.close();
+    }
+
+    @Test
+    void whenTaskCompletes_thenResultReturned() {
+        assertEquals("hash", executor.execute(() -> "hash"));
+        assertEquals(1, executor.getCompleted());
+    }
+
+    @Test
+    void whenQueueIsFull_thenRejectFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        // Занимаем единственный поток пула
+        callers.submit(() -> executor.execute(() -> {
+            started.countDown();
+            release.await();
+            return true;
+        }));
+        started.await();
+        // Занимаем единственное место в очереди
+        callers.submit(() -> executor.execute(() -> true));
+        while (executor.getQueueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> executor.execute(() -> true));
+        assertEquals(1, executor.getRejections());
+    }
+
+    @Test
+    void whenTaskRunsLongerThanTimeout_thenResultStillReturned() {
+        // Таймаут ограничивает только ожидание в очереди, начавшееся хэширование не прерывается
+        assertEquals("hash", executor.execute(() -> {
+            Thread.sleep(400);
+            return "hash";
+        }));
+        assertEquals(0, executor.getTimeouts());
+    }
+
+    @Test
+    void whenTaskWaitsInQueuePastTimeout_thenRejectedAndNeverRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        // Занимаем единственный поток пула
+        Future<Boolean> running = callers.submit(() -> executor.execute(() -> {
+            started.countDown();
+            release.await();
+            return true;
+        }));
+        started.await();
+        AtomicBoolean queuedTaskRan = new AtomicBoolean();
+
+        assertThrows(PasswordHashingBusyException.class, () -> executor.execute(() -> queuedTaskRan.getAndSet(true)));
+
+        // Проверка: задача снята с очереди и не выполняется, когда поток освобождается
+        assertEquals(1, executor.getTimeouts());
+        assertEquals(0, executor.getQueueDepth());
+        release.countDown();
+        assertTrue(running.get());
+        assertEquals("after", executor.execute(() -> "after"));
+        assertFalse(queuedTaskRan.get());
+    }
+}
@@ -0,0 +1,86 @@
+package org.youjhin.hw10authservicetesting.security;
+
+import org.junit.jupiter.api.Test;
+import org.youjhin.hw10authservicetesting.security.config.CredentialCacheProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VerifiedCredentialCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void whenSameCredentialsRepeated_thenVerifiedUntilTtlExpires() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(enabled(), nanos::get);
+        cache.recordVerified("alice", "secret", "$2a$10$hash");
+
+        assertTrue(cache.isVerified("alice", "secret", "$2a$10$hash"));
+        assertFalse(cache.isVerified("alice", "wrong", "$2a$10$hash"));
+        // Имя и пароль склеиваются с длинами, поэтому другое разбиение той же строки не совпадает
+        assertFalse(cache.isVerified("alic", "esecret", "$2a$10$hash"));
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertFalse(cache.isVerified("alice", "secret", "$2a$10$hash"));
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void whenStoredHashChangesOrUserInvalidated_thenCredentialsCheckedAgain() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(enabled(), nanos::get);
+        cache.recordVerified("alice", "secret", "$2a$10$old");
+
+        // Смена пароля меняет хэш в базе, и запись перестаёт подходить
+        assertFalse(cache.isVerified("alice", "secret", "$2a$10$new"));
+
+        cache.recordVerified("alice", "secret", "$2a$10$new");
+        cache.invalidate("alice");
+        assertFalse(cache.isVerified("alice", "secret", "$2a$10$new"));
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsCached() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(new CredentialCacheProperties(), nanos::get);
+        cache.recordVerified("alice", "secret", "$2a$10$hash");
+
+        assertFalse(cache.isVerified("alice", "secret", "$2a$10$hash"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void whenVerifiedFromManyVirtualThreads_thenMacInstancesReused() throws Exception {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(enabled(), nanos::get);
+        cache.recordVerified("alice", "secret", "$2a$10$hash");
+        AtomicInteger verified = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.submit(() -> {
+                    if (cache.isVerified("alice", "secret", "$2a$10$hash")) {
+                        verified.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        // Проверка: каждый вход подтверждён, а Mac создавались только под одновременные вычисления
+        assertEquals(10_000, verified.get());
+        assertTrue(cache.getMacsCreated() <= 2L * Runtime.getRuntime().availableProcessors(),
+                "macs created: " + cache.getMacsCreated());
+    }
+
+    private static CredentialCacheProperties enabled() {
+        CredentialCacheProperties properties = new CredentialCacheProperties();
+        properties.setEnabled(true);
+        properties.setTtl(Duration.ofMinutes(1));
+        return properties;
+    }
+}
@@ -0,0 +1,56 @@
+package org.youjhin.hw10authservicetesting.security.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.youjhin.hw10authservicetesting.controllers.LogInAndOutController;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.admin.user-ids=900001")
+@AutoConfigureMockMvc
+public class AdminAccessTest {
+
+    private static final long ADMIN_ID = 900001L;
+    private static final long USER_ID = 900002L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Test
+    void whenUserIsNotAdmin_thenAdminEndpointsForbidden() throws Exception {
+        MockHttpSession session = loggedIn(USER_ID);
+
+        mockMvc.perform(get("/admin/users").session(session)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/admin/audit").session(session)).andExpect(status().isForbidden());
+        mockMvc.perform(post("/admin/users/import").session(session).contentType("text/csv").content("username,password\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void whenUserIsAdmin_thenAdminEndpointsAllowed() throws Exception {
+        mockMvc.perform(get("/admin/users").session(loggedIn(ADMIN_ID))).andExpect(status().isOk());
+    }
+
+    private MockHttpSession loggedIn(long userId) {
+        SessionEntity session = new SessionEntity();
+        session.setUserId(userId);
+        session.setCreatedAt(LocalDateTime.now());
+        sessionStore.save(session);
+        MockHttpSession httpSession = new MockHttpSession();
+        httpSession.setAttribute(LogInAndOutController.SESSION_ID_ATTRIBUTE, session.getId());
+        return httpSession;
+    }
+}
@@ -0,0 +1,80 @@
+package org.youjhin.hw10authservicetesting.security.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessTokenServiceTest {
+
+    private static final String OLD_KEY = Base64.getEncoder().encodeToString("old-signing-key-old-signing-key-0".getBytes());
+    private static final String NEW_KEY = Base64.getEncoder().encodeToString("new-signing-key-new-signing-key-1".getBytes());
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-05-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void whenTokenIssued_thenVerifiedWithoutLookup() {
+        AccessTokenService tokenService = service("k1", Map.of("k1", OLD_KEY), clock);
+
+        VerifiedToken token = tokenService.verify(tokenService.issue(1L, 42L, "alice")).orElseThrow();
+
+        assertEquals(1L, token.userId());
+        assertEquals(42L, token.sessionId());
+        assertEquals("alice", token.username());
+    }
+
+    @Test
+    void whenKeyRotated_thenOldTokensStillValidAndUnknownKeysRejected() {
+        String oldToken = service("k1", Map.of("k1", OLD_KEY), clock).issue(1L, 42L, "alice");
+
+        // Новый ключ активен, старый оставлен для проверки ранее выданных токенов
+        AccessTokenService rotated = service("k2", Map.of("k1", OLD_KEY, "k2", NEW_KEY), clock);
+        assertTrue(rotated.verify(oldToken).isPresent());
+
+        // После удаления старого ключа его токены больше не принимаются
+        AccessTokenService withoutOldKey = service("k2", Map.of("k2", NEW_KEY), clock);
+        assertTrue(withoutOldKey.verify(oldToken).isEmpty());
+    }
+
+    @Test
+    void whenRevokedOrExpired_thenRejected() {
+        AccessTokenService tokenService = service("k1", Map.of("k1", OLD_KEY), clock);
+        String token = tokenService.issue(1L, 42L, "alice");
+
+        tokenService.revoke(42L);
+        assertTrue(tokenService.verify(token).isEmpty());
+
+        Clock later = Clock.offset(clock, Duration.ofMinutes(16));
+        assertTrue(service("k1", Map.of("k1", OLD_KEY), later).verify(token).isEmpty());
+    }
+
+    @Test
+    void whenAllUserTokensRevoked_thenEarlierTokensRejectedAndOtherUsersUnaffected() {
+        AccessTokenService tokenService = service("k1", Map.of("k1", OLD_KEY), clock);
+        String firstSession = tokenService.issue(1L, 42L, "alice");
+        String secondSession = tokenService.issue(1L, 43L, "alice");
+        String otherUser = tokenService.issue(2L, 44L, "bob");
+
+        // Выход из всех сессий: сессии в базе удалены, но выданные токены проверяются без обращения к ней
+        tokenService.revokeAll(1L);
+
+        assertTrue(tokenService.verify(firstSession).isEmpty());
+        assertTrue(tokenService.verify(secondSession).isEmpty());
+        assertTrue(tokenService.verify(otherUser).isPresent());
+    }
+
+    private static AccessTokenService service(String activeKeyId, Map<String, String> keys, Clock clock) {
+        TokenProperties properties = new TokenProperties();
+        properties.setEnabled(true);
+        properties.setActiveKeyId(activeKeyId);
+        properties.setKeys(keys);
+        return new AccessTokenService(properties, clock);
+    }
+}
@@ -1,19 +1,44 @@
 package org.youjhin.hw10authservicetesting.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.youjhin.hw10authservicetesting.config.ReadYourWrites;
+import org.youjhin.hw10authservicetesting.config.ReplicaProperties;
 import org.youjhin.hw10authservicetesting.models.SessionEntity;
 import org.youjhin.hw10authservicetesting.models.UserEntity;
 import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
 import org.youjhin.hw10authservicetesting.repositorys.UserRepository;
+import org.youjhin.hw10authservicetesting.security.VerifiedCredentialCache;
+import org.youjhin.hw10authservicetesting.security.config.CredentialCacheProperties;
+import org.youjhin.hw10authservicetesting.security.token.AccessTokenService;
+import org.youjhin.hw10authservicetesting.services.LoginResult.FailureReason;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLog;
+import org.youjhin.hw10authservicetesting.services.audit.AuditLogProperties;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.InMemorySessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.RepositorySessionStore;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionIdGenerator;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionPersistenceProperties;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionWriter;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilter;
+import org.youjhin.hw10authservicetesting.services.users.UsernameFilterProperties;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -31,13 +56,22 @@ public class AuthServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
     private AuthServiceImpl authService;
 
     private UserEntity user;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UsernameFilter usernameFilter;
+
     @BeforeEach
     void setUp() {
+        // Сессии хранятся в базе и записываются синхронно, чтобы проверять вызовы репозитория сессий
+        SessionWriter sessionWriter = new SessionWriter(sessionRepository, new SessionIdGenerator(0), new SessionPersistenceProperties());
+        // Фильтр имён не построен, поэтому каждая проверка имени идёт в репозиторий
+        usernameFilter = new UsernameFilter(mock(JdbcTemplate.class), new UsernameFilterProperties());
+        authService = service(repositoryStore(sessionWriter), new VerifiedCredentialCache(new CredentialCacheProperties()));
+
         // Инициализация тестового пользователя
         user = new UserEntity();
         user.setUsername("testUser");
@@ -93,4 +127,202 @@ public class AuthServiceImplTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
+    @Test
+    void whenLogoutWithTokens_thenAllUserTokensRevoked() {
+        AccessTokenService accessTokenService = mock(AccessTokenService.class);
+        AuthServiceImpl tokenService = service(repositoryStore(new SessionWriter(sessionRepository,
+                new SessionIdGenerator(0), new SessionPersistenceProperties())),
+                new VerifiedCredentialCache(new CredentialCacheProperties()), accessTokenService);
+
+        tokenService.logout(1L);
+
+        // Проверка: токены не сверяются с базой сессий, поэтому их нужно отозвать явно
+        verify(accessTokenService, times(1)).revokeAll(1L);
+        verify(sessionRepository, times(1)).deleteByUserId(1L);
+    }
+
+    @Test
+    void whenAuthenticateExistingUser_thenReturnUserAndSession() {
+        // Настройка поведения: пользователь найден, пароль совпадает, сессия получает идентификатор при сохранении
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(sessionRepository.save(any(SessionEntity.class))).thenAnswer(invocation -> {
+            SessionEntity session = invocation.getArgument(0);
+            session.setId(42L);
+            return session;
+        });
+
+        LoginResult result = authService.authenticate("testUser", "testPassword");
+
+        // Проверка результата: получены идентификаторы пользователя и сессии за один поиск пользователя
+        assertTrue(result.isSuccess());
+        assertEquals(1L, result.userId());
+        assertEquals(42L, result.sessionId());
+        verify(userRepository, times(1)).findByUsername("testUser");
+    }
+
+    @Test
+    void whenAuthenticateWithWrongPassword_thenReturnFailureReason() {
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+
+        LoginResult result = authService.authenticate("testUser", "wrongPassword");
+
+        // Проверка результата: вход не выполнен, сессия не создана
+        assertFalse(result.isSuccess());
+        assertEquals(FailureReason.BAD_CREDENTIALS, result.failureReason());
+        verify(sessionRepository, never()).save(any(SessionEntity.class));
+        // Проверка метрик: неудачный вход учтён с причиной отказа
+        assertEquals(1.0, meterRegistry.get("auth.login").tag("result", "bad_credentials").counter().count());
+    }
+
+    @Test
+    void whenLogoutSession_thenDeleteOnlyThatSession() {
+        authService.logoutSession(42L, 1L, "testUser");
+
+        // Проверка вызова: удаляется только указанная сессия, а не все сессии пользователя
+        verify(sessionRepository, times(1)).deleteById(42L);
+        verify(sessionRepository, never()).deleteByUserId(anyLong());
+    }
+
+    @Test
+    void whenUsernameTakenConcurrently_thenRegisterReturnsFalse() {
+        // Фильтр построен, имени в нём нет: регистрация сразу выполняет вставку
+        usernameFilter.rebuild();
+        when(userRepository.save(any(UserEntity.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement [Duplicate entry 'testUser' for key 'user_entity.uk_user_username']"));
+
+        // Проверка: нарушение уникальности превращается в ответ «пользователь уже существует»
+        assertFalse(authService.register(user));
+        assertEquals(1.0, meterRegistry.get("auth.register").tag("result", "duplicate").counter().count());
+    }
+
+    @Test
+    void whenUsernameFilterHasNoMatch_thenRegisterSkipsLookup() {
+        // Фильтр построен по пустой таблице пользователей
+        usernameFilter.rebuild();
+
+        assertTrue(authService.register(user));
+
+        // Проверка: имя точно свободно, запрос к базе не нужен; новое имя добавлено в фильтр
+        verify(userRepository, never()).findByUsername(anyString());
+        assertTrue(usernameFilter.mightExist("testUser"));
+    }
+
+    @Test
+    void whenLoginWithStaleHash_thenRehashAndSaveUser() {
+        // Настройка поведения: пароль совпадает, но хэш создан с устаревшими параметрами
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("testPassword")).thenReturn(true);
+
+        assertTrue(authService.login("testUser", "testPassword"));
+
+        // Проверка: сохранена копия пользователя с новым хэшем, найденный (кэшированный) экземпляр не изменён
+        ArgumentCaptor<UserEntity> saved = ArgumentCaptor.forClass(UserEntity.class);
+        verify(userRepository, times(1)).save(saved.capture());
+        assertNotSame(user, saved.getValue());
+        assertEquals(user.getId(), saved.getValue().getId());
+        assertEquals("encodedPassword", saved.getValue().getPassword());
+        assertEquals("testPassword", user.getPassword());
+    }
+
+    @Test
+    void whenCredentialsRecentlyVerified_thenRepeatLoginSkipsPasswordEncoder() {
+        CredentialCacheProperties cacheProperties = new CredentialCacheProperties();
+        cacheProperties.setEnabled(true);
+        AuthServiceImpl cachingService = service(repositoryStore(new SessionWriter(sessionRepository,
+                new SessionIdGenerator(0), new SessionPersistenceProperties())), new VerifiedCredentialCache(cacheProperties));
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("testPassword", "testPassword")).thenReturn(true);
+
+        assertTrue(cachingService.login("testUser", "testPassword"));
+        assertTrue(cachingService.login("testUser", "testPassword"));
+        // Проверка: BCrypt выполнялся только при первом входе
+        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+
+        // Неверный пароль не совпадает с записью кэша и проверяется полностью
+        assertFalse(cachingService.login("testUser", "wrongPassword"));
+        // После смены пароля запись кэша больше не подходит
+        user.setPassword("changedHash");
+        assertFalse(cachingService.login("testUser", "testPassword"));
+        verify(passwordEncoder, times(3)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void whenUserDeleted_thenCachedCredentialsForgotten() {
+        CredentialCacheProperties cacheProperties = new CredentialCacheProperties();
+        cacheProperties.setEnabled(true);
+        AuthServiceImpl cachingService = service(repositoryStore(new SessionWriter(sessionRepository,
+                new SessionIdGenerator(0), new SessionPersistenceProperties())), new VerifiedCredentialCache(cacheProperties));
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("testPassword", "testPassword")).thenReturn(true);
+        assertTrue(cachingService.login("testUser", "testPassword"));
+
+        assertTrue(cachingService.deleteUser("testUser"));
+
+        // Проверка: пользователь и его сессии удалены
+        verify(userRepository, times(1)).delete(user);
+        verify(sessionRepository, times(1)).deleteByUserId(1L);
+        // Даже если устаревшая копия пользователя ещё найдётся, запись кэша учётных данных уже забыта
+        cachingService.login("testUser", "testPassword");
+        verify(passwordEncoder, times(2)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void whenGroupCommitFails_thenLoginFailsWithoutServerError() throws Exception {
+        SessionPersistenceProperties persistence = new SessionPersistenceProperties();
+        persistence.setMode(SessionPersistenceProperties.Mode.WRITE_BEHIND);
+        persistence.setDurability(SessionPersistenceProperties.Durability.GROUP_COMMIT);
+        SessionWriter groupCommitWriter = new SessionWriter(sessionRepository, new SessionIdGenerator(0), persistence);
+        AuthServiceImpl groupCommitService = service(repositoryStore(groupCommitWriter),
+                new VerifiedCredentialCache(new CredentialCacheProperties()));
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(sessionRepository.saveAll(any())).thenThrow(new DataAccessResourceFailureException("database is down"));
+
+        try {
+            LoginResult result = groupCommitService.authenticate("testUser", "testPassword");
+
+            // Проверка: отказ записи пакета — обычная неудача входа, которую контроллер показывает страницей ошибки
+            assertFalse(result.isSuccess());
+            assertEquals(FailureReason.SESSION_NOT_SAVED, result.failureReason());
+        } finally {
+            groupCommitWriter.destroy();
+        }
+    }
+
+    @Test
+    void whenSessionsKeptOnlyInMemory_thenLoginCreatesSessionWithId() {
+        // auth.sessions.store=memory, auth.sessions.durable=false: база сессий не используется
+        InMemorySessionStore memoryStore = new InMemorySessionStore(null, new SessionIdGenerator(0), Duration.ofMinutes(30),
+                Duration.ofSeconds(1), Duration.ofSeconds(10), Clock.systemDefaultZone());
+        AuthServiceImpl memoryService = service(memoryStore, new VerifiedCredentialCache(new CredentialCacheProperties()));
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+
+        LoginResult result = memoryService.authenticate("testUser", "testPassword");
+
+        assertTrue(result.isSuccess());
+        assertTrue(memoryStore.findById(result.sessionId()).isPresent());
+        verifyNoInteractions(sessionRepository);
+    }
+
+    /**
+     * Сервис с моками репозиториев и кодировщика; остальные зависимости — с настройками по умолчанию.
+     */
+    private AuthServiceImpl service(SessionStore sessionStore, VerifiedCredentialCache credentialCache) {
+        return service(sessionStore, credentialCache, null);
+    }
+
+    private AuthServiceImpl service(SessionStore sessionStore, VerifiedCredentialCache credentialCache,
+                                    AccessTokenService accessTokenService) {
+        return new AuthServiceImpl(userRepository, sessionStore, passwordEncoder, accessTokenService, new AuthMetrics(meterRegistry),
+                usernameFilter, new ReadYourWrites(new ReplicaProperties()), new AuditLog(new AuditLogProperties()),
+                credentialCache);
+    }
+
+    private RepositorySessionStore repositoryStore(SessionWriter sessionWriter) {
+        return new RepositorySessionStore(sessionRepository, sessionWriter, Duration.ofMinutes(30), Clock.systemDefaultZone());
+    }
 }
@@ -0,0 +1,75 @@
+package org.youjhin.hw10authservicetesting.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.youjhin.hw10authservicetesting.config.ReactiveAuthServer;
+import org.youjhin.hw10authservicetesting.controllers.ReactiveAuthHandler.Credentials;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "auth.reactive.enabled=true",
+        "auth.reactive.port=0",
+        "auth.token.enabled=true",
+        "auth.token.active-key-id=k1",
+        "auth.token.keys.k1=cmVhY3RpdmUtc2lnbmluZy1rZXktcmVhY3RpdmUtc2lnbmluZy1rZXk="
+})
+public class ReactiveAuthServiceImplTest {
+
+    @Autowired
+    private ReactiveAuthServer reactiveAuthServer;
+
+    @Test
+    void whenRegisteredAndLoggedIn_thenTokenLogsOutOnce() {
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveAuthServer.getPort())
+                .build();
+        Credentials credentials = new Credentials("reactive-user", "password");
+
+        client.post().uri("/api/auth/register").contentType(MediaType.APPLICATION_JSON).bodyValue(credentials)
+                .exchange().expectStatus().isCreated();
+        client.post().uri("/api/auth/register").contentType(MediaType.APPLICATION_JSON).bodyValue(credentials)
+                .exchange().expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        client.post().uri("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Credentials("reactive-user", "wrong"))
+                .exchange().expectStatus().isUnauthorized()
+                .expectBody().jsonPath("$.reason").isEqualTo("BAD_CREDENTIALS");
+
+        Map<?, ?> login = client.post().uri("/api/auth/login").contentType(MediaType.APPLICATION_JSON).bodyValue(credentials)
+                .exchange().expectStatus().isOk()
+                .expectBody(Map.class).returnResult().getResponseBody();
+        assertNotNull(login);
+        String token = (String) login.get("accessToken");
+        assertNotNull(token);
+
+        client.post().uri("/api/auth/logout").headers(h -> h.setBearerAuth(token))
+                .exchange().expectStatus().isNoContent();
+        // Токен отозван при выходе
+        client.post().uri("/api/auth/logout").headers(h -> h.setBearerAuth(token))
+                .exchange().expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void whenTooManyLoginAttempts_thenThrottledLikeFormLogin() {
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveAuthServer.getPort())
+                .build();
+        Credentials credentials = new Credentials("reactive-throttled", "wrong");
+
+        // Ёмкость по имени пользователя по умолчанию — 5 попыток
+        for (int i = 0; i < 5; i++) {
+            client.post().uri("/api/auth/login").contentType(MediaType.APPLICATION_JSON).bodyValue(credentials)
+                    .exchange().expectStatus().isUnauthorized();
+        }
+        client.post().uri("/api/auth/login").contentType(MediaType.APPLICATION_JSON).bodyValue(credentials)
+                .exchange().expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+    }
+}
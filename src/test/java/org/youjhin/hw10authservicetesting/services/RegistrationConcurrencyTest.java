@@ -0,0 +1,55 @@
+package org.youjhin.hw10authservicetesting.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class RegistrationConcurrencyTest {
+
+    @Autowired
+    private AuthServiceImpl authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void whenSameUsernameRegisteredInParallel_thenExactlyOneSucceeds() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                UserEntity user = new UserEntity();
+                user.setUsername("parallel-user");
+                user.setPassword("password");
+                start.await();
+                return authService.register(user);
+            }));
+        }
+        start.countDown();
+
+        int registered = 0;
+        for (Future<Boolean> result : results) {
+            registered += result.get() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        // Проверка: ограничение уникальности не допускает дубликатов
+        assertEquals(1, registered);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from user_entity where username = 'parallel-user'", Integer.class));
+    }
+}
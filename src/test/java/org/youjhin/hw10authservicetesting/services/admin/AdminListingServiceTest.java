@@ -0,0 +1,111 @@
+package org.youjhin.hw10authservicetesting.services.admin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.models.SessionSummary;
+import org.youjhin.hw10authservicetesting.models.UserEntity;
+import org.youjhin.hw10authservicetesting.models.UserSummary;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+import org.youjhin.hw10authservicetesting.repositorys.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class AdminListingServiceTest {
+
+    @Autowired
+    private AdminListingService adminListingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    private final List<UserEntity> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch(createdUsers);
+    }
+
+    @Test
+    void whenPagingUsers_thenEveryUserReturnedOnceInIdOrder() {
+        for (int i = 0; i < 5; i++) {
+            UserEntity user = new UserEntity();
+            user.setUsername("listing-" + i);
+            user.setPassword("hash");
+            createdUsers.add(userRepository.save(user));
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<UserSummary> page = adminListingService.users(cursor, 2);
+            page.items().forEach(user -> paged.add(user.id()));
+            cursor = page.next();
+        } while (cursor != null);
+
+        List<Long> exported = new ArrayList<>();
+        adminListingService.exportUsers(user -> exported.add(user.id()));
+
+        // Проверка: страницы без пропусков и повторов совпадают с потоковой выгрузкой
+        assertEquals(userRepository.count(), paged.size());
+        assertEquals(exported, paged);
+        assertEquals(paged.stream().sorted().toList(), paged);
+    }
+
+    @Test
+    void whenPagingUserSessions_thenOnlyActiveSessionsInCreationOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        sessionRepository.save(session(1L, 10L, now.minusHours(2))); // истекла
+        // Три сессии с одинаковым временем создания различаются по идентификатору
+        sessionRepository.save(session(4L, 10L, now.minusMinutes(5)));
+        sessionRepository.save(session(2L, 10L, now.minusMinutes(5)));
+        sessionRepository.save(session(3L, 10L, now.minusMinutes(5)));
+        sessionRepository.save(session(5L, 10L, now.minusMinutes(1)));
+        sessionRepository.save(session(6L, 20L, now.minusMinutes(1)));
+
+        KeysetPage<SessionSummary> first = adminListingService.sessions(10L, null, 2);
+        KeysetPage<SessionSummary> second = adminListingService.sessions(10L, first.next(), 2);
+        KeysetPage<SessionSummary> third = adminListingService.sessions(10L, second.next(), 2);
+
+        assertEquals(List.of(2L, 3L), ids(first.items()));
+        assertEquals(List.of(4L, 5L), ids(second.items()));
+        assertEquals(List.of(), third.items());
+        assertNull(third.next());
+
+        List<SessionSummary> exported = new ArrayList<>();
+        adminListingService.exportSessions(10L, exported::add);
+        assertEquals(List.of(2L, 3L, 4L, 5L), ids(exported));
+        assertEquals(5, adminListingService.sessions(null, null, 10).items().size());
+    }
+
+    @Test
+    void whenCursorMalformed_thenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> adminListingService.users("abc", 10));
+        assertThrows(IllegalArgumentException.class, () -> adminListingService.sessions(null, "yesterday_1", 10));
+    }
+
+    private static List<Long> ids(List<SessionSummary> sessions) {
+        return sessions.stream().map(SessionSummary::id).toList();
+    }
+
+    private static SessionEntity session(Long id, Long userId, LocalDateTime createdAt) {
+        SessionEntity session = new SessionEntity();
+        session.setId(id);
+        session.setUserId(userId);
+        session.setCreatedAt(createdAt);
+        return session;
+    }
+}
@@ -0,0 +1,141 @@
+package org.youjhin.hw10authservicetesting.services.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.youjhin.hw10authservicetesting.services.LoginResult;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenManyProducersOffer_thenEveryAcceptedEventIsDrainedOnce() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        int producers = 4;
+        int perProducer = 20_000;
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    if (!buffer.offer(new AuditEvent(0, AuditEvent.Type.LOGIN, AuditEvent.Outcome.SUCCESS, base + i, 0, null))) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        BitSet seen = new BitSet(producers * perProducer);
+        AtomicInteger duplicates = new AtomicInteger();
+        int drained = 0;
+        start.countDown();
+        while (threads.stream().anyMatch(Thread::isAlive) || buffer.size() > 0) {
+            drained += buffer.drain(event -> {
+                if (seen.get((int) event.userId())) {
+                    duplicates.incrementAndGet();
+                }
+                seen.set((int) event.userId());
+            }, 256);
+        }
+
+        // Проверка: каждое принятое событие получено ровно один раз
+        assertEquals(0, duplicates.get());
+        assertEquals(producers * perProducer, drained + rejected.get());
+        assertEquals(drained, seen.cardinality());
+    }
+
+    @Test
+    void whenSegmentsRotate_thenScannerFiltersByUserAndTimeAndRetentionDropsOldest() throws Exception {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 100, Duration.ofDays(1), Clock.systemUTC())) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append(new AuditEvent(1_000 + i, AuditEvent.Type.LOGIN, AuditEvent.Outcome.SUCCESS,
+                        i, i, "user-" + (i % 10)));
+            }
+        }
+        AuditLogScanner scanner = new AuditLogScanner(directory);
+        List<AuditEvent> found = new ArrayList<>();
+
+        scanner.scan("user-3", Instant.ofEpochMilli(1_100), Instant.ofEpochMilli(1_200), found::add);
+
+        // Проверка: события записаны в несколько сегментов и найдены только подходящие
+        assertTrue(AuditSegmentWriter.segments(directory).size() > 1);
+        assertEquals(10, found.size());
+        assertTrue(found.stream().allMatch(e -> e.username().equals("user-3")
+                && e.timestamp() >= 1_100 && e.timestamp() < 1_200 && e.userId() == e.timestamp() - 1_000));
+
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 2, Duration.ofDays(1), Clock.systemUTC())) {
+            writer.append(new AuditEvent(5_000, AuditEvent.Type.LOGOUT, AuditEvent.Outcome.SUCCESS, 0, 7, null));
+        }
+        List<AuditEvent> remaining = new ArrayList<>();
+        scanner.scan(null, null, null, remaining::add);
+        assertEquals(2, AuditSegmentWriter.segments(directory).size());
+        assertEquals(new AuditEvent(5_000, AuditEvent.Type.LOGOUT, AuditEvent.Outcome.SUCCESS, 0, 7, null),
+                remaining.get(remaining.size() - 1));
+        assertFalse(remaining.stream().anyMatch(e -> e.timestamp() == 1_000));
+    }
+
+    @Test
+    void whenUsernameTooLong_thenTruncatedOnCharacterBoundary() throws Exception {
+        // 1 + 2 * 600 байт: граница в 1024 байта приходится на середину двухбайтового символа
+        String username = "a" + "я".repeat(600);
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 10, Duration.ofDays(1), Clock.systemUTC())) {
+            writer.append(new AuditEvent(1_000, AuditEvent.Type.LOGIN, AuditEvent.Outcome.USER_NOT_FOUND, 0, 0, username));
+        }
+        List<AuditEvent> found = new ArrayList<>();
+
+        new AuditLogScanner(directory).scan(null, null, null, found::add);
+
+        assertEquals("a" + "я".repeat(511), found.get(0).username());
+    }
+
+    @Test
+    void whenAuditLogClosed_thenRecordedEventsAreOnDisk() throws Exception {
+        AuditLogProperties properties = new AuditLogProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        AuditLog auditLog = new AuditLog(properties);
+
+        auditLog.recordRegistration("alice", 1L, true);
+        auditLog.recordLogin("alice", LoginResult.success(1L, 42L, null));
+        auditLog.recordLogin("bob", LoginResult.failure(LoginResult.FailureReason.USER_NOT_FOUND));
+        auditLog.recordLogout("alice", 1L, 42L);
+        auditLog.destroy();
+
+        List<AuditEvent> alice = new ArrayList<>();
+        long scanned = auditLog.scanner().scan("alice", null, null, alice::add);
+        assertEquals(4, scanned);
+        assertEquals(List.of(AuditEvent.Type.REGISTER, AuditEvent.Type.LOGIN, AuditEvent.Type.LOGOUT),
+                alice.stream().map(AuditEvent::type).toList());
+        assertEquals(42L, alice.get(1).sessionId());
+        // Выход одной сессии записан с её владельцем
+        assertEquals(1L, alice.get(2).userId());
+        assertEquals(42L, alice.get(2).sessionId());
+        assertEquals(4, auditLog.getWritten());
+        assertEquals(0, auditLog.getDropped());
+    }
+}
@@ -0,0 +1,91 @@
+package org.youjhin.hw10authservicetesting.services.imports;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.youjhin.hw10authservicetesting.repositorys.UserRepository;
+import org.youjhin.hw10authservicetesting.services.AuthServiceImpl;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "auth.import.batch-size=2")
+public class UserImporterTest {
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthServiceImpl authService;
+
+    @Test
+    void whenImportingNdjson_thenValidRowsInsertedAndFailuresReported() {
+        // Отрицательная запись в кэше должна быть сброшена импортом
+        assertTrue(userRepository.findByUsername("import-1").isEmpty());
+
+        String input = """
+                {"username": "import-1", "password": "secret-1"}
+                {"username": "import-2", "password": "secret-2"}
+                not json
+                {"username": "import-3", "password": "secret-3"}
+                {"username": "import-3", "password": "again"}
+                {"username": "import-1", "password": "again"}
+                {"username": "import-4", "passwordHash": "$2a$04$withoutPrefix"}
+                {"username": "import-5", "passwordHash": "{noop}plain"}
+                {"username": "import-6", "passwordHash": "{bcrypt}%s"}
+                """.formatted(new BCryptPasswordEncoder(4).encode("secret-6"));
+        List<ImportFailure> failures = new ArrayList<>();
+        List<ImportProgress> progress = new ArrayList<>();
+
+        ImportProgress result = userImporter.importUsers(new StringReader(input), UserImportReader.Format.NDJSON,
+                new UserImportListener() {
+                    @Override
+                    public void onFailure(ImportFailure failure) {
+                        failures.add(failure);
+                    }
+
+                    @Override
+                    public void onProgress(ImportProgress value) {
+                        progress.add(value);
+                    }
+                });
+
+        assertEquals(new ImportProgress(9, 4, 5), result);
+        assertEquals(List.of(
+                ImportFailure.Reason.INVALID, ImportFailure.Reason.DUPLICATE,
+                ImportFailure.Reason.ALREADY_EXISTS, ImportFailure.Reason.INVALID, ImportFailure.Reason.INVALID),
+                failures.stream().map(ImportFailure::reason).toList());
+        assertEquals(3, failures.get(0).line());
+        assertEquals(result, progress.get(progress.size() - 1));
+
+        // Импортированный пользователь может войти с исходным паролем
+        assertTrue(authService.login("import-1", "secret-1"));
+        // Готовый хэш BCrypt принят как есть, хэш неизвестного кодировщику алгоритма ({noop}) — отклонён
+        assertTrue(authService.login("import-6", "secret-6"));
+    }
+
+    @Test
+    void whenCsvHeaderMissing_thenRejected() {
+        StringReader input = new StringReader("alice,secret\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userImporter.importUsers(input, UserImportReader.Format.CSV, null));
+    }
+
+    @Test
+    void whenHashingThreadsConfigured_thenCappedAtHalfOfCores() {
+        int cap = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        assertEquals(cap, UserImporter.hashingThreads(1_000));
+        assertEquals(1, UserImporter.hashingThreads(0));
+    }
+}
@@ -0,0 +1,71 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class ExpiredSessionPurgeJobTest {
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenSessionsExpired_thenPurgedInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= 5; id++) {
+            sessionRepository.save(session(id, 10L, now.minusHours(2)));
+        }
+        sessionRepository.save(session(6L, 10L, now));
+
+        SessionStoreProperties properties = new SessionStoreProperties();
+        properties.setTtl(Duration.ofHours(1));
+        properties.getPurge().setChunkSize(2);
+        properties.getPurge().setChunkPause(Duration.ZERO);
+        ExpiredSessionPurgeJob job = new ExpiredSessionPurgeJob(sessionRepository, transactionTemplate, properties);
+
+        // Пять истёкших сессий удаляются тремя порциями (2 + 2 + 1), свежая сессия остаётся
+        assertEquals(5, job.purgeExpired());
+        assertEquals(1, sessionRepository.count());
+        assertTrue(sessionRepository.existsById(6L));
+    }
+
+    @Test
+    void whenDeleteByUserId_thenAllUserSessionsRemovedInBulk() {
+        LocalDateTime now = LocalDateTime.now();
+        sessionRepository.save(session(1L, 10L, now));
+        sessionRepository.save(session(2L, 10L, now));
+        sessionRepository.save(session(3L, 20L, now));
+
+        sessionRepository.deleteByUserId(10L);
+
+        assertEquals(1, sessionRepository.count());
+        assertTrue(sessionRepository.existsById(3L));
+    }
+
+    private static SessionEntity session(Long id, Long userId, LocalDateTime createdAt) {
+        SessionEntity session = new SessionEntity();
+        session.setId(id);
+        session.setUserId(userId);
+        session.setCreatedAt(createdAt);
+        return session;
+    }
+}
@@ -0,0 +1,129 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.services.interfaces.SessionStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InMemorySessionStoreTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-05-01T10:00:00Z"));
+    private InMemorySessionStore sessionStore;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = new InMemorySessionStore(null, new SessionIdGenerator(0), Duration.ofMinutes(30), Duration.ofSeconds(1),
+                Duration.ofSeconds(10), new MutableClock(ZoneOffset.UTC));
+    }
+
+    @Test
+    void whenTtlElapsed_thenSessionExpiredByTimingWheel() {
+        sessionStore.save(session(1L, 10L));
+
+        // За секунду до истечения сессия ещё действительна
+        advance(Duration.ofMinutes(30).minusSeconds(1));
+        sessionStore.expireSessions();
+        assertTrue(sessionStore.findById(1L).isPresent());
+
+        // После истечения колесо таймеров удаляет сессию из памяти
+        advance(Duration.ofSeconds(1));
+        sessionStore.expireSessions();
+        assertTrue(sessionStore.findById(1L).isEmpty());
+        assertEquals(0, sessionStore.size());
+    }
+
+    @Test
+    void whenDeleteByUserId_thenOnlyThatUsersSessionsRemoved() {
+        sessionStore.save(session(1L, 10L));
+        sessionStore.save(session(2L, 10L));
+        sessionStore.save(session(3L, 20L));
+
+        sessionStore.deleteByUserId(10L);
+
+        assertTrue(sessionStore.findById(1L).isEmpty());
+        assertTrue(sessionStore.findById(2L).isEmpty());
+        assertTrue(sessionStore.findById(3L).isPresent());
+    }
+
+    @Test
+    void whenSavedWithoutDurableStore_thenIdAssignedInMemory() {
+        SessionEntity session = session(null, 10L);
+
+        sessionStore.save(session);
+
+        // Без надёжного уровня идентификатор назначает генератор, и сессия находится по нему
+        assertNotNull(session.getId());
+        assertTrue(sessionStore.findById(session.getId()).isPresent());
+    }
+
+    @Test
+    void whenUnknownSessionRequestedRepeatedly_thenDurableStoreQueriedOncePerNegativeTtl() {
+        SessionStore durableStore = mock(SessionStore.class);
+        when(durableStore.findById(anyLong())).thenReturn(Optional.empty());
+        InMemorySessionStore store = new InMemorySessionStore(durableStore, new SessionIdGenerator(0), Duration.ofMinutes(30),
+                Duration.ofSeconds(1), Duration.ofSeconds(10), new MutableClock(ZoneOffset.UTC));
+
+        assertTrue(store.findById(42L).isEmpty());
+        assertTrue(store.findById(42L).isEmpty());
+        verify(durableStore, times(1)).findById(42L);
+
+        // По истечении negativeTtl база снова проверяется
+        advance(Duration.ofSeconds(10));
+        assertTrue(store.findById(42L).isEmpty());
+        verify(durableStore, times(2)).findById(42L);
+    }
+
+    private SessionEntity session(Long id, Long userId) {
+        SessionEntity session = new SessionEntity();
+        session.setId(id);
+        session.setUserId(userId);
+        session.setCreatedAt(LocalDateTime.ofInstant(now.get(), ZoneOffset.UTC));
+        return session;
+    }
+
+    private void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    private class MutableClock extends Clock {
+
+        private final ZoneId zone;
+
+        MutableClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.youjhin.hw10authservicetesting.services.sessions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.youjhin.hw10authservicetesting.models.SessionEntity;
+import org.youjhin.hw10authservicetesting.repositorys.SessionRepository;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionPersistenceProperties.Durability;
+import org.youjhin.hw10authservicetesting.services.sessions.SessionPersistenceProperties.Mode;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionWriterTest {
+
+    private final SessionRepository sessionRepository = mock(SessionRepository.class);
+    private SessionWriter sessionWriter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sessionWriter.destroy();
+    }
+
+    @Test
+    void whenGroupCommit_thenConcurrentSessionsWrittenInOneBatch() throws Exception {
+        sessionWriter = writer(Durability.GROUP_COMMIT, 10, Duration.ofMillis(200));
+
+        Thread first = Thread.ofPlatform().start(() -> sessionWriter.write(session(1L)));
+        Thread second = Thread.ofPlatform().start(() -> sessionWriter.write(session(2L)));
+        first.join();
+        second.join();
+
+        // Обе сессии записаны к моменту возврата из write и одним пакетом
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SessionEntity>> batch = ArgumentCaptor.forClass(List.class);
+        verify(sessionRepository, times(1)).saveAll(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        verify(sessionRepository, never()).save(any(SessionEntity.class));
+    }
+
+    @Test
+    void whenGroupCommitBatchFails_thenEveryWaiterGetsItsOwnFailure() throws Exception {
+        sessionWriter = writer(Durability.GROUP_COMMIT, 10, Duration.ofMillis(200));
+        RuntimeException failure = new DataAccessResourceFailureException("database is down");
+        when(sessionRepository.saveAll(any())).thenThrow(failure);
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        Thread first = Thread.ofPlatform().start(() -> writeCatching(session(1L), errors));
+        Thread second = Thread.ofPlatform().start(() -> writeCatching(session(2L), errors));
+        first.join();
+        second.join();
+
+        // Проверка: оба потока получили отказ записи с общей причиной, а не исключение CompletableFuture
+        assertEquals(2, errors.size());
+        for (Throwable error : errors) {
+            assertInstanceOf(SessionWriteException.class, error);
+            assertSame(failure, error.getCause());
+        }
+        assertNotSame(errors.get(0), errors.get(1));
+    }
+
+    @Test
+    void whenFlusherStopped_thenGroupCommitWaitIsBounded() throws Exception {
+        sessionWriter = writer(Durability.GROUP_COMMIT, 10, Duration.ofMillis(10));
+        sessionWriter.destroy();
+        SessionEntity session = session(1L);
+
+        // Фоновый поток уже завершён: пакет с сессией никогда не будет записан
+        long start = System.nanoTime();
+        SessionWriteException error = assertThrows(SessionWriteException.class, () -> sessionWriter.write(session));
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertFalse(sessionWriter.isPending(session.getId()));
+        verify(sessionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void whenDiscardedBeforeFlush_thenSessionNotWritten() throws Exception {
+        sessionWriter = writer(Durability.ASYNC, 10, Duration.ofSeconds(5));
+        SessionEntity session = session(1L);
+
+        sessionWriter.write(session);
+        assertNotNull(session.getId());
+        assertTrue(sessionWriter.isPending(session.getId()));
+
+        sessionWriter.discard(session.getId());
+        sessionWriter.destroy();
+
+        assertFalse(sessionWriter.isPending(session.getId()));
+        verify(sessionRepository, never()).saveAll(any());
+    }
+
+    private void writeCatching(SessionEntity session, List<Throwable> errors) {
+        try {
+            sessionWriter.write(session);
+        } catch (RuntimeException e) {
+            errors.add(e);
+        }
+    }
+
+    private SessionWriter writer(Durability durability, int batchSize, Duration flushInterval) {
+        SessionPersistenceProperties properties = new SessionPersistenceProperties();
+        properties.setMode(Mode.WRITE_BEHIND);
+        properties.setDurability(durability);
+        properties.setBatchSize(batchSize);
+        properties.setFlushInterval(flushInterval);
+        return new SessionWriter(sessionRepository, new SessionIdGenerator(1), properties);
+    }
+
+    private static SessionEntity session(Long userId) {
+        SessionEntity session = new SessionEntity();
+        session.setUserId(userId);
+        session.setCreatedAt(LocalDateTime.now());
+        return session;
+    }
+}
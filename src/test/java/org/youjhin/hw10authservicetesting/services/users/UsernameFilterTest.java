@@ -0,0 +1,119 @@
+package org.youjhin.hw10authservicetesting.services.users;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UsernameFilterTest {
+
+    // «Таблица» пользователей: имя попадает в неё до вызова add, как после сохранения в базе
+    private final Queue<String> table = new ConcurrentLinkedQueue<>();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UsernameFilter filter = new UsernameFilter(jdbcTemplate, new UsernameFilterProperties());
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void whenNameAddedWhileTableIsRead_thenRebuiltFilterContainsIt() {
+        table.add("existing");
+        scanTable(row -> {
+            // Имя сохранено после того, как чтение таблицы его уже пропустило
+            if (row.equals("existing")) {
+                filter.add("registered-during-rebuild");
+            }
+        });
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist("existing"));
+        assertTrue(filter.mightExist("registered-during-rebuild"));
+    }
+
+    @Test
+    void whenNamesAddedConcurrentlyWithRebuilds_thenNoNameIsLost() throws Exception {
+        scanTable(row -> { });
+        filter.rebuild();
+
+        // Перестройки идут непрерывно, а несколько потоков регистрируют имена и сразу их проверяют
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<String> lost = new AtomicReference<>();
+        Thread rebuilder = new Thread(() -> {
+            while (!stop.get()) {
+                filter.rebuild();
+            }
+        });
+        List<Thread> adders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            adders.add(new Thread(() -> {
+                for (int i = 0; i < 2_000 && lost.get() == null; i++) {
+                    String username = "user-" + thread + "-" + i;
+                    table.add(username);
+                    filter.add(username);
+                    if (!filter.mightExist(username)) {
+                        lost.compareAndSet(null, username);
+                    }
+                }
+            }));
+        }
+        rebuilder.start();
+        adders.forEach(Thread::start);
+        for (Thread adder : adders) {
+            adder.join();
+        }
+        stop.set(true);
+        rebuilder.join();
+
+        assertNull(lost.get());
+        assertTrue(filter.getRebuilds() > 1);
+        assertEquals(8_000, table.size());
+    }
+
+    /**
+     * Подменяет чтение таблицы: отдаёт снимок {@link #table}, вызывая {@code onRow} после каждой строки.
+     */
+    private void scanTable(Consumer<String> onRow) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> (long) table.size());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            Iterator<String> rows = List.copyOf(table).iterator();
+            while (rows.hasNext()) {
+                String row = rows.next();
+                handler.processRow(singleColumn(row));
+                onRow.accept(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet singleColumn(String value) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> value);
+    }
+}